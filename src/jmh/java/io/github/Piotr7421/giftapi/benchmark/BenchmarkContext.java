@@ -0,0 +1,48 @@
+package io.github.Piotr7421.giftapi.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import io.github.Piotr7421.giftapi.GiftApiApplication;
+
+import java.time.LocalDate;
+
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    // every benchmark gets its own in-memory database, so trials never see each other's rows
+    static ConfigurableApplicationContext start(String database, String... properties) {
+        return start(WebApplicationType.NONE, database, properties);
+    }
+
+    static ConfigurableApplicationContext startServer(String database, String... properties) {
+        return start(WebApplicationType.SERVLET, database, properties);
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String database, String... properties) {
+        return new SpringApplicationBuilder(GiftApiApplication.class)
+                .web(webApplicationType)
+                .profiles("benchmark")
+                .properties("spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_ON_EXIT=FALSE")
+                .properties(properties)
+                .logStartupInfo(false)
+                .run();
+    }
+
+    static byte[] kidsCsv(int rows) {
+        StringBuilder csv = new StringBuilder("firstName,lastName,birthDate\n");
+        LocalDate birthDate = LocalDate.of(2010, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            if (i % 10 == 0) {
+                csv.append("\"Anna, Maria\",");
+            } else {
+                csv.append("Kid").append(i % 500).append(',');
+            }
+            csv.append("Lastname").append(i % 1000).append(',')
+                    .append(birthDate.plusDays(i % 3650)).append('\n');
+        }
+        return csv.toString().getBytes();
+    }
+}
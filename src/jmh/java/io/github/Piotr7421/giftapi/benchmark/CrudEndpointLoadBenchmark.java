@@ -0,0 +1,113 @@
+package io.github.Piotr7421.giftapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import io.github.Piotr7421.giftapi.model.Gift;
+import io.github.Piotr7421.giftapi.model.Kid;
+import io.github.Piotr7421.giftapi.repository.GiftRepository;
+import io.github.Piotr7421.giftapi.repository.KidRepository;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Load test of the CRUD endpoints with request handling on platform and on virtual threads.
+// SampleTime reports the latency percentiles (p0.99 in the JSON result) next to the throughput.
+// Virtual threads are only used when the forked JVM runs on Java 21 or newer.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(256)
+@Fork(1)
+public class CrudEndpointLoadBenchmark {
+
+    private static final int KIDS = 100;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private int[] kidIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.startServer("crud_endpoint_" + virtualThreads,
+                "server.port=0",
+                "spring.threads.virtual.enabled=" + virtualThreads);
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/v1/kids";
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        KidRepository kidRepository = context.getBean(KidRepository.class);
+        GiftRepository giftRepository = context.getBean(GiftRepository.class);
+        kidIds = new int[KIDS];
+        for (int i = 0; i < KIDS; i++) {
+            Kid kid = kidRepository.save(Kid.builder()
+                    .firstName("Kid" + i)
+                    .lastName("Benchmark")
+                    .birthDate(LocalDate.of(2015, 1, 1))
+                    .build());
+            giftRepository.save(Gift.builder().name("Teddy bear").price(49.99).kid(kid).build());
+            giftRepository.save(Gift.builder().name("Lego").price(199.99).kid(kid).build());
+            kidIds[i] = kid.getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int findKid() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + randomKidId())).GET());
+    }
+
+    @Benchmark
+    public int findGifts() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + randomKidId() + "/gifts")).GET());
+    }
+
+    @Benchmark
+    public int createKid() throws IOException, InterruptedException {
+        String body = "{\"firstName\":\"Anna\",\"lastName\":\"Nowak\",\"birthDate\":\"2015-05-20\"}";
+        return send(HttpRequest.newBuilder(URI.create(baseUrl))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<Void> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private int randomKidId() {
+        return kidIds[ThreadLocalRandom.current().nextInt(kidIds.length)];
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.Piotr7421.giftapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import io.github.Piotr7421.giftapi.exceptions.KidLockTimeoutException;
+import io.github.Piotr7421.giftapi.exceptions.KidOptimisticLockingException;
+import io.github.Piotr7421.giftapi.exceptions.ToManyGiftsException;
+import io.github.Piotr7421.giftapi.model.Kid;
+import io.github.Piotr7421.giftapi.model.command.CreateGiftCommand;
+import io.github.Piotr7421.giftapi.model.dto.GiftDto;
+import io.github.Piotr7421.giftapi.repository.KidRepository;
+import io.github.Piotr7421.giftapi.service.GiftService;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Every thread saves a gift and deletes it again, so the gift limit is only hit when threads
+// meet on the same kid. One kid measures full contention, compared between the conditional update,
+// which waits for the kid row lock, and the optimistic version compare-and-increment with retries.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class GiftServiceBenchmark {
+
+    @Param({"1", "64"})
+    private int kids;
+
+    @Param({"CONDITIONAL_UPDATE", "OPTIMISTIC"})
+    private String concurrencyMode;
+
+    private ConfigurableApplicationContext context;
+    private GiftService giftService;
+    private int[] kidIds;
+    private final CreateGiftCommand command = new CreateGiftCommand()
+            .setName("Teddy bear")
+            .setPrice(49.99);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("gift_service_" + kids + "_" + concurrencyMode,
+                "gift.concurrency-mode=" + concurrencyMode);
+        giftService = context.getBean(GiftService.class);
+        KidRepository kidRepository = context.getBean(KidRepository.class);
+        kidIds = new int[kids];
+        for (int i = 0; i < kids; i++) {
+            kidIds[i] = kidRepository.save(Kid.builder()
+                            .firstName("Kid" + i)
+                            .lastName("Benchmark")
+                            .birthDate(LocalDate.of(2015, 1, 1))
+                            .build())
+                    .getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object save() {
+        int kidId = kidIds[ThreadLocalRandom.current().nextInt(kidIds.length)];
+        try {
+            GiftDto gift = giftService.save(kidId, command);
+            giftService.delete(kidId, gift.getId());
+            return gift;
+        } catch (ToManyGiftsException | KidLockTimeoutException | KidOptimisticLockingException e) {
+            return e;
+        }
+    }
+}
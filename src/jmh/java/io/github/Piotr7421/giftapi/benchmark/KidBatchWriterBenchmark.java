@@ -0,0 +1,71 @@
+package io.github.Piotr7421.giftapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import io.github.Piotr7421.giftapi.importer.KidBatchWriter;
+import io.github.Piotr7421.giftapi.importer.KidCsvParser;
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KidBatchWriterBenchmark {
+
+    @Param({"JDBC_BATCH", "MULTI_ROW", "BULK_LOAD"})
+    private String engine;
+
+    @Param({"10000"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private KidBatchWriter kidBatchWriter;
+    private KidBatch batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("kid_batch_writer_" + engine, "jdbc.import-engine=" + engine);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        kidBatchWriter = context.getBean(KidBatchWriter.class);
+        byte[] content = BenchmarkContext.kidsCsv(batchSize);
+        int header = new String(content, 0, 64).indexOf('\n') + 1;
+        batch = new KidBatch(batchSize);
+        new KidCsvParser()
+                .reset(ByteBuffer.wrap(content, header, content.length - header).slice(), header, KidCsvParser.FIRST_DATA_LINE)
+                .parseInto(batch);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteKids() {
+        jdbcTemplate.update("DELETE FROM kid");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void write() {
+        kidBatchWriter.write(batch, null);
+    }
+}
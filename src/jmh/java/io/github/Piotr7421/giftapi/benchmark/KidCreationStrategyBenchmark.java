@@ -0,0 +1,83 @@
+package io.github.Piotr7421.giftapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import io.github.Piotr7421.giftapi.model.Kid;
+import io.github.Piotr7421.giftapi.strategy.BoyCreationStrategy;
+import io.github.Piotr7421.giftapi.strategy.GirlCreationStrategy;
+import io.github.Piotr7421.giftapi.strategy.KidCommandDeserializer;
+import io.github.Piotr7421.giftapi.strategy.KidCreationStrategy;
+import io.github.Piotr7421.giftapi.strategy.KidStrategyRegistry;
+import io.github.Piotr7421.giftapi.strategy.model.command.CreateKidStrategyCommand;
+import io.github.Piotr7421.giftapi.strategy.model.command.ParsedKidCommand;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// create() starts from an already bound command; bindCommandAndCreate() and readKid() start from the
+// request body, once through the command object and its params map and once token by token through
+// KidCommandDeserializer; compare them with -prof gc, the gc.alloc.rate.norm column is the bytes per kid
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KidCreationStrategyBenchmark {
+
+    @Param({"BOY", "GIRL"})
+    private String type;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private KidCreationStrategy strategy;
+    private KidStrategyRegistry registry;
+    private ObjectMapper streamingMapper;
+    private CreateKidStrategyCommand command;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        strategy = type.equals("BOY") ? new BoyCreationStrategy() : new GirlCreationStrategy();
+        registry = new KidStrategyRegistry(Map.of(type, strategy));
+        streamingMapper = new ObjectMapper().registerModule(new SimpleModule()
+                .addDeserializer(ParsedKidCommand.class, new KidCommandDeserializer(registry)));
+        command = new CreateKidStrategyCommand()
+                .setType(type)
+                .setParams(Map.of(
+                        "firstName", "Anna",
+                        "lastName", "Nowak",
+                        "birthDate", "2015-05-20",
+                        "pantsLength", "110",
+                        "skirtColor", "red"));
+        json = objectMapper.writeValueAsString(command).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Kid create() {
+        return strategy.create(command);
+    }
+
+    @Benchmark
+    public Kid bindCommandAndCreate() throws IOException {
+        CreateKidStrategyCommand bound = objectMapper.readValue(json, CreateKidStrategyCommand.class);
+        return registry.get(bound.getType()).create(bound);
+    }
+
+    @Benchmark
+    public Kid readKid() throws IOException {
+        return streamingMapper.readValue(json, ParsedKidCommand.class).kid();
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.Piotr7421.giftapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import io.github.Piotr7421.giftapi.importer.KidCsvParser;
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KidCsvParserBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"1000", "10000"})
+    private int batchSize;
+
+    private ByteBuffer csv;
+    private KidCsvParser parser;
+    private KidBatch batch;
+
+    @Setup
+    public void setUp() {
+        byte[] content = BenchmarkContext.kidsCsv(rows);
+        int header = new String(content, 0, 64).indexOf('\n') + 1;
+        csv = ByteBuffer.wrap(content, header, content.length - header).slice();
+        parser = new KidCsvParser();
+        batch = new KidBatch(batchSize);
+    }
+
+    @Benchmark
+    public int parse() {
+        parser.reset(csv.duplicate(), 0, KidCsvParser.FIRST_DATA_LINE);
+        int parsed = 0;
+        while (parser.hasRemaining()) {
+            batch.clear();
+            parsed += parser.parseInto(batch);
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.Piotr7421.giftapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Kids created per second through the single-item strategy endpoint and through the batch endpoint,
+// both over HTTP with the same mix of boys and girls
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KidStrategyBatchBenchmark {
+
+    private static final int KIDS = 500;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private HttpClient httpClient;
+    private URI createUri;
+    private URI batchUri;
+    private List<String> commands;
+    private String batchBody;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.startServer("kid_strategy_batch", "server.port=0");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/strategy/kids";
+        createUri = URI.create(baseUrl);
+        batchUri = URI.create(baseUrl + "/batch");
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        commands = new ArrayList<>(KIDS);
+        for (int i = 0; i < KIDS; i++) {
+            commands.add(i % 2 == 0
+                    ? "{\"type\":\"BOY\",\"params\":{\"firstName\":\"Kid" + i + "\",\"lastName\":\"Nowak\",\"birthDate\":\"2015-05-20\",\"pantsLength\":\"110\"}}"
+                    : "{\"type\":\"GIRL\",\"params\":{\"firstName\":\"Kid" + i + "\",\"lastName\":\"Nowak\",\"birthDate\":\"2015-05-20\",\"skirtColor\":\"red\"}}");
+        }
+        batchBody = commands.stream().collect(Collectors.joining(",", "[", "]"));
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteKids() {
+        jdbcTemplate.update("DELETE FROM kid");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KIDS)
+    public int createOneByOne() throws IOException, InterruptedException {
+        int status = 0;
+        for (String command : commands) {
+            status = send(createUri, command);
+        }
+        return status;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KIDS)
+    public int createBatch() throws IOException, InterruptedException {
+        return send(batchUri, batchBody);
+    }
+
+    private int send(URI uri, String body) throws IOException, InterruptedException {
+        HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.Piotr7421.giftapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import io.github.Piotr7421.giftapi.mapper.GiftMapper;
+import io.github.Piotr7421.giftapi.mapper.GiftMapperImpl;
+import io.github.Piotr7421.giftapi.mapper.KidMapper;
+import io.github.Piotr7421.giftapi.mapper.KidMapperImpl;
+import io.github.Piotr7421.giftapi.model.Gift;
+import io.github.Piotr7421.giftapi.model.Kid;
+import io.github.Piotr7421.giftapi.model.command.CreateGiftCommand;
+import io.github.Piotr7421.giftapi.model.command.CreateKidCommand;
+import io.github.Piotr7421.giftapi.model.dto.GiftDto;
+import io.github.Piotr7421.giftapi.model.dto.KidDto;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final KidMapper kidMapper = new KidMapperImpl();
+    private final GiftMapper giftMapper = new GiftMapperImpl();
+    private Kid kid;
+    private Gift gift;
+    private CreateKidCommand kidCommand;
+    private CreateGiftCommand giftCommand;
+
+    @Setup
+    public void setUp() {
+        kid = Kid.builder()
+                .id(1)
+                .firstName("Anna")
+                .lastName("Nowak")
+                .birthDate(LocalDate.of(2015, 5, 20))
+                .build();
+        gift = Gift.builder()
+                .id(1)
+                .name("Teddy bear")
+                .price(49.99)
+                .kid(kid)
+                .build();
+        kidCommand = new CreateKidCommand()
+                .setFirstName("Anna")
+                .setLastName("Nowak")
+                .setBirthDate(LocalDate.of(2015, 5, 20));
+        giftCommand = new CreateGiftCommand()
+                .setName("Teddy bear")
+                .setPrice(49.99);
+    }
+
+    @Benchmark
+    public KidDto kidToDto() {
+        return kidMapper.mapToDto(kid);
+    }
+
+    @Benchmark
+    public Kid kidFromCommand() {
+        return kidMapper.mapFromCommand(kidCommand);
+    }
+
+    @Benchmark
+    public GiftDto giftToDto() {
+        return giftMapper.mapToDto(gift);
+    }
+
+    @Benchmark
+    public Gift giftFromCommand() {
+        return giftMapper.mapFromCommand(giftCommand);
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.Piotr7421.giftapi.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import io.github.Piotr7421.giftapi.importer.KidBatchWriter;
+import io.github.Piotr7421.giftapi.importer.MeteredKidBatchWriter;
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+import io.github.Piotr7421.giftapi.model.Kid;
+import io.github.Piotr7421.giftapi.model.dto.KidDto;
+import io.github.Piotr7421.giftapi.repository.KidRepository;
+import io.github.Piotr7421.giftapi.service.KidService;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Cost of the metrics on the cheapest calls they wrap: a KidService lookup answered from the kid cache,
+// with and without the @Timed aspect, and a batch write to a writer that does nothing, with and without
+// the metered wrapper. Real calls add a database round trip, so these are upper bounds of the overhead.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceMetricsBenchmark {
+
+    @Param({"true", "false"})
+    private boolean instrumented;
+
+    private ConfigurableApplicationContext context;
+    private KidService kidService;
+    private int kidId;
+    private KidBatchWriter kidBatchWriter;
+    private final KidBatch batch = new KidBatch(1);
+    private final UUID importId = UUID.randomUUID();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("service_metrics_" + instrumented,
+                "management.observations.annotations.enabled=" + instrumented);
+        kidService = context.getBean(KidService.class);
+        kidId = context.getBean(KidRepository.class).save(Kid.builder()
+                        .firstName("Anna")
+                        .lastName("Nowak")
+                        .birthDate(LocalDate.of(2015, 1, 1))
+                        .build())
+                .getId();
+        kidService.findById(kidId);
+        KidBatchWriter noOpWriter = (kidBatch, id) -> {
+        };
+        kidBatchWriter = instrumented ? new MeteredKidBatchWriter(noOpWriter, new SimpleMeterRegistry()) : noOpWriter;
+        batch.add("Anna", "Nowak", LocalDate.of(2015, 1, 1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public KidDto findCachedKid() {
+        return kidService.findById(kidId);
+    }
+
+    @Benchmark
+    public KidBatch writeBatch() {
+        kidBatchWriter.write(batch, importId);
+        return batch;
+    }
+}
@@ -5,13 +5,17 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.scheduling.annotation.EnableAsync;
+import io.github.Piotr7421.giftapi.properties.AdaptiveBatchProperties;
 import io.github.Piotr7421.giftapi.properties.AsyncTaskExecutorProperties;
+import io.github.Piotr7421.giftapi.properties.GiftProperties;
 import io.github.Piotr7421.giftapi.properties.JdbcProperties;
+import io.github.Piotr7421.giftapi.properties.LookupCacheProperties;
 
 @EnableAsync
 @SpringBootApplication
 @EnableAspectJAutoProxy
-@EnableConfigurationProperties({JdbcProperties.class, AsyncTaskExecutorProperties.class})
+@EnableConfigurationProperties({JdbcProperties.class, AdaptiveBatchProperties.class, AsyncTaskExecutorProperties.class, GiftProperties.class,
+        LookupCacheProperties.class})
 public class GiftApiApplication {
 
     public static void main(String[] args) {
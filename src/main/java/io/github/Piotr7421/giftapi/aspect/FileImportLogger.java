@@ -14,7 +14,7 @@ import java.nio.file.Path;
 @Slf4j
 public class FileImportLogger {
 
-    @Pointcut("execution(* io.github.Piotr7421.giftapi.service.KidsFileImportService.importKidsFromFile(..)) && args(csvPath)")
+    @Pointcut("execution(* io.github.Piotr7421.giftapi.service.KidsFileImportService.importKidsFromFile(..)) && args(csvPath, ..)")
     public void fileImportPointcut(Path csvPath) {
     }
 
@@ -0,0 +1,50 @@
+package io.github.Piotr7421.giftapi.aspect;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import io.github.Piotr7421.giftapi.exceptions.GiftOptimisticLockingException;
+import io.github.Piotr7421.giftapi.exceptions.KidLockTimeoutException;
+import io.github.Piotr7421.giftapi.exceptions.KidOptimisticLockingException;
+
+@Aspect
+@Component
+public class LockFailureMetrics {
+
+    private final Counter optimisticFailures;
+    private final Counter pessimisticFailures;
+
+    public LockFailureMetrics(MeterRegistry meterRegistry) {
+        this.optimisticFailures = Counter.builder("lock.failures")
+                .description("Requests that failed on a version conflict")
+                .tag("lock", "optimistic")
+                .register(meterRegistry);
+        this.pessimisticFailures = Counter.builder("lock.failures")
+                .description("Requests that failed waiting for a row lock")
+                .tag("lock", "pessimistic")
+                .register(meterRegistry);
+    }
+
+    // Counted where the request enters, so a failure is counted once however many services it passes through.
+    // Conflicts that a retry recovers from are counted by GiftQuotaService as gift.quota.conflicts.
+    @Pointcut("within(io.github.Piotr7421.giftapi..controller..*)")
+    public void controllerPointcut() {
+    }
+
+    @AfterThrowing(pointcut = "controllerPointcut()", throwing = "exception")
+    public void countLockFailure(RuntimeException exception) {
+        if (exception instanceof KidOptimisticLockingException
+                || exception instanceof GiftOptimisticLockingException
+                || exception instanceof OptimisticLockingFailureException) {
+            optimisticFailures.increment();
+        } else if (exception instanceof KidLockTimeoutException
+                || exception instanceof PessimisticLockingFailureException) {
+            pessimisticFailures.increment();
+        }
+    }
+}
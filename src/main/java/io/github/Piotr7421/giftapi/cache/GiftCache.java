@@ -0,0 +1,22 @@
+package io.github.Piotr7421.giftapi.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import io.github.Piotr7421.giftapi.model.dto.GiftDto;
+import io.github.Piotr7421.giftapi.properties.LookupCacheProperties;
+
+import java.util.Collection;
+import java.util.Set;
+
+@Component
+public class GiftCache extends VersionedCache<GiftKey, GiftDto> {
+
+    public GiftCache(LookupCacheProperties properties, MeterRegistry meterRegistry) {
+        super("gifts", properties.getGifts(), meterRegistry);
+    }
+
+    public void evictAllOfKidsAfterCommit(Collection<Integer> kidIds) {
+        Set<Integer> deletedKids = Set.copyOf(kidIds);
+        evictMatchingAfterCommit(key -> deletedKids.contains(key.kidId()));
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.Piotr7421.giftapi.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import io.github.Piotr7421.giftapi.model.dto.KidDto;
+import io.github.Piotr7421.giftapi.properties.LookupCacheProperties;
+
+@Component
+public class KidCache extends VersionedCache<Integer, KidDto> {
+
+    public KidCache(LookupCacheProperties properties, MeterRegistry meterRegistry) {
+        super("kids", properties.getKids(), meterRegistry);
+    }
+}
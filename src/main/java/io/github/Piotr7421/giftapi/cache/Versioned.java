@@ -0,0 +1,4 @@
+package io.github.Piotr7421.giftapi.cache;
+
+public record Versioned<V>(int version, V value) {
+}
@@ -0,0 +1,70 @@
+package io.github.Piotr7421.giftapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import io.github.Piotr7421.giftapi.properties.LookupCacheProperties;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Bounded read-through cache of DTOs. A miss is loaded atomically per key, so an eviction issued
+// after a commit waits for a load that is in flight instead of being overtaken by its stale result.
+// Writes happen only after commit, so a rolled back change never reaches the cache, and every entry
+// carries the entity version, so of two racing writers the one with the newer version stays cached.
+public abstract class VersionedCache<K, V> {
+
+    private final Cache<K, Versioned<V>> cache;
+
+    protected VersionedCache(String name, LookupCacheProperties.Spec spec, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    // misses of unknown keys are not cached, so a row inserted later is found on the next lookup
+    public Optional<V> get(K key, Function<K, Optional<Versioned<V>>> loader) {
+        return Optional.ofNullable(cache.get(key, k -> loader.apply(k).orElse(null)))
+                .map(Versioned::value);
+    }
+
+    // the supplier runs after commit, when the flush has already bumped the version of the entity
+    public void putAfterCommit(K key, Supplier<Versioned<V>> value) {
+        afterCommit(() -> cache.asMap().merge(key, value.get(),
+                (current, candidate) -> candidate.version() >= current.version() ? candidate : current));
+    }
+
+    public void evictAfterCommit(K key) {
+        afterCommit(() -> cache.invalidate(key));
+    }
+
+    public void evictAllAfterCommit(Collection<K> keys) {
+        afterCommit(() -> cache.invalidateAll(keys));
+    }
+
+    public void evictMatchingAfterCommit(Predicate<K> keys) {
+        afterCommit(() -> cache.asMap().keySet().removeIf(keys));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,18 +1,33 @@
 package io.github.Piotr7421.giftapi.configuration;
 
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import io.github.Piotr7421.giftapi.properties.AsyncTaskExecutorProperties;
+import io.github.Piotr7421.giftapi.properties.JdbcProperties;
 
+import javax.sql.DataSource;
+
+@Slf4j
 @Configuration
 @RequiredArgsConstructor
 public class AsyncConfig {
 
+    // the name Spring Boot tags the executor.* metrics of the asyncTaskExecutor bean with
+    private static final String EXECUTOR_METRICS_NAME = "asyncTaskExecutor";
+
     private final AsyncTaskExecutorProperties taskExecutorProperties;
 
     @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
     public ThreadPoolTaskExecutor asyncTaskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(taskExecutorProperties.getCorePoolSize());
@@ -21,4 +36,37 @@ public class AsyncConfig {
         executor.setThreadNamePrefix(taskExecutorProperties.getThreadNamePrefix());
         return executor;
     }
+
+    // With spring.threads.virtual.enabled on Java 21 every import gets its own virtual thread, so uploads
+    // are never rejected. Imports wait on a semaphore instead, sized so that running imports cannot
+    // ask for more connections than the Hikari pool holds.
+    // The thread pool executor gets its executor.* gauges from Spring Boot. Here they are registered
+    // under the same names and tag from the semaphore, so dashboards work in both threading modes.
+    @Bean(name = "asyncTaskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualAsyncTaskExecutor(DataSource dataSource, JdbcProperties jdbcProperties,
+                                                            MeterRegistry meterRegistry) {
+        int permits = importPermits(dataSource, jdbcProperties);
+        log.info("Running imports on virtual threads, at most {} at a time", permits);
+        ConcurrencyLimitingTaskDecorator taskDecorator = new ConcurrencyLimitingTaskDecorator(permits);
+        Gauge.builder("executor.active", taskDecorator, ConcurrencyLimitingTaskDecorator::activeTasks)
+                .description("Imports running on virtual threads")
+                .tag("name", EXECUTOR_METRICS_NAME)
+                .register(meterRegistry);
+        Gauge.builder("executor.queued", taskDecorator, ConcurrencyLimitingTaskDecorator::queuedTasks)
+                .description("Imports waiting for a permit")
+                .tag("name", EXECUTOR_METRICS_NAME)
+                .register(meterRegistry);
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(taskExecutorProperties.getThreadNamePrefix());
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(taskDecorator);
+        return executor;
+    }
+
+    private int importPermits(DataSource dataSource, JdbcProperties jdbcProperties) {
+        int poolSize = dataSource instanceof HikariDataSource hikariDataSource
+                ? hikariDataSource.getMaximumPoolSize()
+                : taskExecutorProperties.getMaxPoolSize();
+        return Math.max(1, poolSize / Math.max(1, jdbcProperties.getWriterThreads()));
+    }
 }
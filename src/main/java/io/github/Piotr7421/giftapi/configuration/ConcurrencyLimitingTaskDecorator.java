@@ -0,0 +1,46 @@
+package io.github.Piotr7421.giftapi.configuration;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.Semaphore;
+
+public class ConcurrencyLimitingTaskDecorator implements TaskDecorator {
+
+    private final int maxPermits;
+    private final Semaphore permits;
+
+    public ConcurrencyLimitingTaskDecorator(int permits) {
+        this.maxPermits = permits;
+        // fair, so uploads start in the order they were accepted
+        this.permits = new Semaphore(permits, true);
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int activeTasks() {
+        return maxPermits - permits.availablePermits();
+    }
+
+    public int queuedTasks() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return () -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                runnable.run();
+            } finally {
+                permits.release();
+            }
+        };
+    }
+}
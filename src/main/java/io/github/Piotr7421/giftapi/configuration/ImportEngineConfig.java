@@ -0,0 +1,54 @@
+package io.github.Piotr7421.giftapi.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import io.github.Piotr7421.giftapi.importer.AdaptiveBatchSizer;
+import io.github.Piotr7421.giftapi.importer.H2CsvReadKidWriter;
+import io.github.Piotr7421.giftapi.importer.ImportRejectWriter;
+import io.github.Piotr7421.giftapi.importer.JdbcBatchKidWriter;
+import io.github.Piotr7421.giftapi.importer.KidBatchWriter;
+import io.github.Piotr7421.giftapi.importer.MeteredKidBatchWriter;
+import io.github.Piotr7421.giftapi.importer.MultiRowKidWriter;
+import io.github.Piotr7421.giftapi.importer.MySqlLoadDataKidWriter;
+import io.github.Piotr7421.giftapi.importer.model.ImportEngine;
+import io.github.Piotr7421.giftapi.properties.JdbcProperties;
+import io.github.Piotr7421.giftapi.repository.IdSequenceRepository;
+
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class ImportEngineConfig {
+
+    private final JdbcProperties jdbcProperties;
+
+    @Bean
+    public KidBatchWriter kidBatchWriter(JdbcTemplate jdbcTemplate, ImportRejectWriter importRejectWriter,
+                                         AdaptiveBatchSizer adaptiveBatchSizer, IdSequenceRepository idSequenceRepository,
+                                         MeterRegistry meterRegistry) {
+        return new MeteredKidBatchWriter(
+                importEngine(jdbcTemplate, importRejectWriter, adaptiveBatchSizer, idSequenceRepository), meterRegistry);
+    }
+
+    private KidBatchWriter importEngine(JdbcTemplate jdbcTemplate, ImportRejectWriter importRejectWriter,
+                                        AdaptiveBatchSizer adaptiveBatchSizer, IdSequenceRepository idSequenceRepository) {
+        if (jdbcProperties.getImportEngine() == ImportEngine.JDBC_BATCH) {
+            return new JdbcBatchKidWriter(jdbcTemplate, importRejectWriter, idSequenceRepository);
+        }
+        if (jdbcProperties.getImportEngine() == ImportEngine.MULTI_ROW) {
+            return new MultiRowKidWriter(jdbcTemplate, importRejectWriter, adaptiveBatchSizer, idSequenceRepository);
+        }
+        String databaseProduct = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        log.info("Using bulk load import engine for {}", databaseProduct);
+        return switch (databaseProduct) {
+            case "MySQL" -> new MySqlLoadDataKidWriter(jdbcTemplate, importRejectWriter, idSequenceRepository);
+            case "H2" -> new H2CsvReadKidWriter(jdbcTemplate, importRejectWriter, idSequenceRepository);
+            default -> throw new IllegalStateException("Bulk load import engine is not supported on " + databaseProduct);
+        };
+    }
+}
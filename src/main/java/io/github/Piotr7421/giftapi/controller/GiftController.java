@@ -0,0 +1,26 @@
+package io.github.Piotr7421.giftapi.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import io.github.Piotr7421.giftapi.model.command.CreateBulkGiftsCommand;
+import io.github.Piotr7421.giftapi.model.dto.BulkGiftResultDto;
+import io.github.Piotr7421.giftapi.service.GiftBulkService;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/gifts")
+public class GiftController {
+
+    private final GiftBulkService giftBulkService;
+
+    @PostMapping("/bulk")
+    public List<BulkGiftResultDto> createBulk(@RequestBody @Valid CreateBulkGiftsCommand command) {
+        return giftBulkService.saveAll(command);
+    }
+}
@@ -4,28 +4,45 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import io.github.Piotr7421.giftapi.exporter.model.KidExportFormat;
 import io.github.Piotr7421.giftapi.model.command.CreateGiftCommand;
 import io.github.Piotr7421.giftapi.model.command.CreateKidCommand;
 import io.github.Piotr7421.giftapi.model.command.UpdateGiftCommand;
 import io.github.Piotr7421.giftapi.model.command.UpdateKidCommand;
+import io.github.Piotr7421.giftapi.model.dto.CursorPageDto;
 import io.github.Piotr7421.giftapi.model.dto.GiftDto;
+import io.github.Piotr7421.giftapi.model.dto.ImportJobDto;
+import io.github.Piotr7421.giftapi.model.dto.ImportRejectDto;
 import io.github.Piotr7421.giftapi.model.dto.KidDto;
+import io.github.Piotr7421.giftapi.model.dto.KidWithGiftsDto;
 import io.github.Piotr7421.giftapi.service.GiftService;
+import io.github.Piotr7421.giftapi.service.ImportJobService;
 import io.github.Piotr7421.giftapi.service.KidService;
+import io.github.Piotr7421.giftapi.service.KidsExportService;
+import io.github.Piotr7421.giftapi.service.KidsFileImportService;
 import io.github.Piotr7421.giftapi.service.KidsFilePreparationService;
 
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/kids")
@@ -34,17 +51,48 @@ public class KidController {
     private final KidService kidService;
     private final GiftService giftService;
     private final KidsFilePreparationService kidsFilePreparationService;
+    private final KidsFileImportService kidsFileImportService;
+    private final ImportJobService importJobService;
+    private final KidsExportService kidsExportService;
 
     @GetMapping
     public Page<KidDto> findAll(Pageable pageable) {
         return kidService.findAll(pageable);
     }
 
+    @GetMapping("/with-gifts")
+    public Page<KidWithGiftsDto> findAllWithGifts(Pageable pageable) {
+        return kidService.findAllWithGifts(pageable);
+    }
+
+    @GetMapping("/cursor")
+    public CursorPageDto<KidDto> findAll(@RequestParam(required = false) String after,
+                                         @RequestParam(defaultValue = "500") int limit) {
+        return kidService.findAll(after, limit);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "NDJSON") KidExportFormat format,
+                                                        @RequestParam(defaultValue = "false") boolean includeGifts) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(format.getFileName())
+                        .build()
+                        .toString())
+                .body(outputStream -> kidsExportService.export(outputStream, format, includeGifts));
+    }
+
     @GetMapping("/{kidId}")
     public KidDto findById(@PathVariable int kidId) {
         return kidService.findById(kidId);
     }
 
+    @GetMapping("/{kidId}/with-gifts")
+    public KidWithGiftsDto findWithGiftsById(@PathVariable int kidId) {
+        return kidService.findWithGiftsById(kidId);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public KidDto create(@RequestBody @Valid CreateKidCommand command) {
@@ -62,11 +110,24 @@ public class KidController {
         kidService.delete(kidId);
     }
 
+    @DeleteMapping(params = "ids")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteAll(@RequestParam List<Integer> ids) {
+        kidService.deleteAll(ids);
+    }
+
     @GetMapping("/{kidId}/gifts")
     public Page<GiftDto> findAllGifts(@PathVariable int kidId, Pageable pageable) {
         return giftService.findAll(kidId, pageable);
     }
 
+    @GetMapping("/{kidId}/gifts/cursor")
+    public CursorPageDto<GiftDto> findAllGifts(@PathVariable int kidId,
+                                               @RequestParam(required = false) String after,
+                                               @RequestParam(defaultValue = "500") int limit) {
+        return giftService.findAll(kidId, after, limit);
+    }
+
     @GetMapping("/{kidId}/gifts/{giftId}")
     public GiftDto findGiftById(@PathVariable int kidId, @PathVariable int giftId) {
         return giftService.findById(kidId, giftId);
@@ -90,7 +151,32 @@ public class KidController {
     }
 
     @PostMapping("/upload")
-    public void importKidsFromFileAsync(@RequestParam("file") MultipartFile file) {
-        kidsFilePreparationService.processKidsFile(file);
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDto importKidsFromFileAsync(@RequestParam("file") MultipartFile file) {
+        return kidsFilePreparationService.processKidsFile(file);
+    }
+
+    @PostMapping(value = "/import/stream", consumes = "text/csv")
+    public ImportJobDto importKidsFromStream(InputStream csvStream,
+                                             @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, defaultValue = "-1") long contentLength) {
+        return kidsFileImportService.importKidsFromStream(csvStream, contentLength);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ImportJobDto findImportJob(@PathVariable UUID jobId) {
+        return importJobService.findById(jobId);
+    }
+
+    @GetMapping("/import/{jobId}/rejects")
+    public CursorPageDto<ImportRejectDto> findImportRejects(@PathVariable UUID jobId,
+                                                            @RequestParam(required = false) String after,
+                                                            @RequestParam(defaultValue = "500") int limit) {
+        return importJobService.findRejects(jobId, after, limit);
+    }
+
+    @DeleteMapping("/import/{jobId}")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDto cancelImportJob(@PathVariable UUID jobId) {
+        return importJobService.cancel(jobId);
     }
 }
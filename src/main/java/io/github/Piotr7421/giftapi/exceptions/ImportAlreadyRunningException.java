@@ -0,0 +1,8 @@
+package io.github.Piotr7421.giftapi.exceptions;
+
+public class ImportAlreadyRunningException extends RuntimeException {
+
+    public ImportAlreadyRunningException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.Piotr7421.giftapi.exceptions;
+
+public class ImportCancelledException extends RuntimeException {
+
+    public ImportCancelledException(String message) {
+        super(message);
+    }
+}
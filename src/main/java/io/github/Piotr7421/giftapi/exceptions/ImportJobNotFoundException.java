@@ -0,0 +1,8 @@
+package io.github.Piotr7421.giftapi.exceptions;
+
+public class ImportJobNotFoundException extends RuntimeException {
+
+    public ImportJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.Piotr7421.giftapi.exceptions;
+
+public class ImportQueueFullException extends RuntimeException {
+
+    public ImportQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.Piotr7421.giftapi.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
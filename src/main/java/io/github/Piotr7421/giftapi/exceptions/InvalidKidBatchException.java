@@ -0,0 +1,8 @@
+package io.github.Piotr7421.giftapi.exceptions;
+
+public class InvalidKidBatchException extends RuntimeException {
+
+    public InvalidKidBatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.Piotr7421.giftapi.exceptions;
+
+public class InvalidKidCommandException extends RuntimeException {
+
+    public InvalidKidCommandException(String message) {
+        super(message);
+    }
+}
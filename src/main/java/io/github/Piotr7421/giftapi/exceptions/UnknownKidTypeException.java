@@ -0,0 +1,8 @@
+package io.github.Piotr7421.giftapi.exceptions;
+
+public class UnknownKidTypeException extends RuntimeException {
+
+    public UnknownKidTypeException(String message) {
+        super(message);
+    }
+}
@@ -7,12 +7,18 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import io.github.Piotr7421.giftapi.exceptions.GiftNotFoundException;
 import io.github.Piotr7421.giftapi.exceptions.GiftOptimisticLockingException;
+import io.github.Piotr7421.giftapi.exceptions.ImportJobNotFoundException;
+import io.github.Piotr7421.giftapi.exceptions.ImportQueueFullException;
 import io.github.Piotr7421.giftapi.exceptions.InsertSqlException;
+import io.github.Piotr7421.giftapi.exceptions.InvalidCursorException;
+import io.github.Piotr7421.giftapi.exceptions.InvalidKidBatchException;
+import io.github.Piotr7421.giftapi.exceptions.InvalidKidCommandException;
 import io.github.Piotr7421.giftapi.exceptions.KidLockTimeoutException;
 import io.github.Piotr7421.giftapi.exceptions.KidNotFoundException;
 import io.github.Piotr7421.giftapi.exceptions.KidOptimisticLockingException;
 import io.github.Piotr7421.giftapi.exceptions.LoadingIOException;
 import io.github.Piotr7421.giftapi.exceptions.ToManyGiftsException;
+import io.github.Piotr7421.giftapi.exceptions.UnknownKidTypeException;
 import io.github.Piotr7421.giftapi.exceptions.model.ExceptionDto;
 import io.github.Piotr7421.giftapi.exceptions.model.ValidationErrorDto;
 
@@ -42,7 +48,12 @@ public class GlobalExceptionHandler {
         return new ExceptionDto(exception.getMessage());
     }
 
-    @ExceptionHandler(ToManyGiftsException.class)
+    @ExceptionHandler({
+            InvalidCursorException.class,
+            InvalidKidBatchException.class,
+            InvalidKidCommandException.class,
+            ToManyGiftsException.class,
+            UnknownKidTypeException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ExceptionDto handleSpecifiedException(RuntimeException exception) {
         return new ExceptionDto(exception.getMessage());
@@ -50,6 +61,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler({
             GiftNotFoundException.class,
+            ImportJobNotFoundException.class,
             KidNotFoundException.class,
     })
     @ResponseStatus(HttpStatus.NOT_FOUND)
@@ -57,11 +69,17 @@ public class GlobalExceptionHandler {
         return new ExceptionDto(exception.getMessage());
     }
 
+    @ExceptionHandler(ImportQueueFullException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ExceptionDto handleImportQueueFullException(ImportQueueFullException exception) {
+        return new ExceptionDto(exception.getMessage());
+    }
+
     @ExceptionHandler({
             InsertSqlException.class,
             LoadingIOException.class})
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    public ExceptionDto handleInsertSqlException(InsertSqlException exception) {
+    public ExceptionDto handleInsertSqlException(RuntimeException exception) {
         return new ExceptionDto(exception.getMessage());
     }
 }
@@ -0,0 +1,95 @@
+package io.github.Piotr7421.giftapi.exporter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+// The columns up to skirtColor are the import format, and the importer ignores extra columns, so an
+// export can be uploaded again as it is. Plain kids leave the type empty, which the importer reads as
+// a plain kid again. Gifts go into one column as name:price pairs split by ';'. A '\', ';' or ':'
+// inside a gift name gets a '\' in front of it.
+public class CsvKidExportWriter implements KidExportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String PLAIN_KID_TYPE = "Kid";
+
+    private final Writer writer;
+    private final boolean includeGifts;
+    private final StringBuilder gifts = new StringBuilder();
+
+    public CsvKidExportWriter(OutputStream outputStream, boolean includeGifts) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.includeGifts = includeGifts;
+        writer.write(includeGifts
+                ? "firstName,lastName,birthDate,type,pantsLength,skirtColor,id,gifts\n"
+                : "firstName,lastName,birthDate,type,pantsLength,skirtColor,id\n");
+    }
+
+    @Override
+    public void startKid(int id, String firstName, String lastName, LocalDate birthDate, String kidType, Integer pantsLength,
+                         String skirtColor) throws IOException {
+        writeField(firstName);
+        writer.write(',');
+        writeField(lastName);
+        writer.write(',');
+        writer.write(birthDate.toString());
+        writer.write(',');
+        if (!PLAIN_KID_TYPE.equals(kidType)) {
+            writeField(kidType);
+        }
+        writer.write(',');
+        if (pantsLength != null) {
+            writer.write(pantsLength.toString());
+        }
+        writer.write(',');
+        if (skirtColor != null) {
+            writeField(skirtColor);
+        }
+        writer.write(',');
+        writer.write(Integer.toString(id));
+        gifts.setLength(0);
+    }
+
+    @Override
+    public void gift(int id, String name, double price) throws IOException {
+        if (!gifts.isEmpty()) {
+            gifts.append(';');
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char current = name.charAt(i);
+            if (current == '\\' || current == ';' || current == ':') {
+                gifts.append('\\');
+            }
+            gifts.append(current);
+        }
+        gifts.append(':').append(price);
+    }
+
+    @Override
+    public void endKid() throws IOException {
+        if (includeGifts) {
+            writer.write(',');
+            writeField(gifts.toString());
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
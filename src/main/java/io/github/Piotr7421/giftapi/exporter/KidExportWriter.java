@@ -0,0 +1,17 @@
+package io.github.Piotr7421.giftapi.exporter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+// Kids arrive one at a time, each followed by its gifts, so a writer never holds more than one kid
+public interface KidExportWriter {
+
+    void startKid(int id, String firstName, String lastName, LocalDate birthDate, String kidType, Integer pantsLength,
+                  String skirtColor) throws IOException;
+
+    void gift(int id, String name, double price) throws IOException;
+
+    void endKid() throws IOException;
+
+    void finish() throws IOException;
+}
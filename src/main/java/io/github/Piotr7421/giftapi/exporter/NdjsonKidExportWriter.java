@@ -0,0 +1,63 @@
+package io.github.Piotr7421.giftapi.exporter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public class NdjsonKidExportWriter implements KidExportWriter {
+
+    private final JsonGenerator generator;
+    private final boolean includeGifts;
+
+    public NdjsonKidExportWriter(ObjectMapper objectMapper, OutputStream outputStream, boolean includeGifts) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.includeGifts = includeGifts;
+    }
+
+    @Override
+    public void startKid(int id, String firstName, String lastName, LocalDate birthDate, String kidType, Integer pantsLength,
+                         String skirtColor) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", id);
+        generator.writeStringField("firstName", firstName);
+        generator.writeStringField("lastName", lastName);
+        generator.writeStringField("birthDate", birthDate.toString());
+        generator.writeStringField("type", kidType);
+        if (pantsLength != null) {
+            generator.writeNumberField("pantsLength", pantsLength);
+        }
+        if (skirtColor != null) {
+            generator.writeStringField("skirtColor", skirtColor);
+        }
+        if (includeGifts) {
+            generator.writeArrayFieldStart("gifts");
+        }
+    }
+
+    @Override
+    public void gift(int id, String name, double price) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", id);
+        generator.writeStringField("name", name);
+        generator.writeNumberField("price", price);
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void endKid() throws IOException {
+        if (includeGifts) {
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.close();
+    }
+}
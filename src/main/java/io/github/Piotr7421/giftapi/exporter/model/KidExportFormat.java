@@ -0,0 +1,15 @@
+package io.github.Piotr7421.giftapi.exporter.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+@Getter
+@RequiredArgsConstructor
+public enum KidExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON, "kids.ndjson"),
+    CSV(new MediaType("text", "csv"), "kids.csv");
+
+    private final MediaType mediaType;
+    private final String fileName;
+}
@@ -0,0 +1,56 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import io.github.Piotr7421.giftapi.properties.AdaptiveBatchProperties;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Additive increase while statements finish within the target latency, multiplicative decrease once
+// they do not. Sizes stay multiples of the increase step, so only a few statement shapes are ever built.
+@Component
+public class AdaptiveBatchSizer {
+
+    private final AdaptiveBatchProperties properties;
+    private final AtomicInteger rowsPerStatement;
+    private final AtomicLong rowsPerSecond = new AtomicLong();
+
+    public AdaptiveBatchSizer(AdaptiveBatchProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rowsPerStatement = new AtomicInteger(clamp(properties.getInitialRowsPerStatement()));
+        Gauge.builder("kid.import.batch.size", rowsPerStatement, AtomicInteger::get)
+                .description("Rows per multi-row INSERT statement chosen by the adaptive batch sizer")
+                .register(meterRegistry);
+        Gauge.builder("kid.import.rows.per.second", rowsPerSecond, AtomicLong::get)
+                .description("Insert throughput of the last multi-row INSERT statement alone, see kid.import.batch.rows.per.second for whole batches")
+                .baseUnit("rows")
+                .register(meterRegistry);
+    }
+
+    public int getRowsPerStatement() {
+        return rowsPerStatement.get();
+    }
+
+    public long getRowsPerSecond() {
+        return rowsPerSecond.get();
+    }
+
+    public void observe(int rows, long elapsedNanos) {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        rowsPerSecond.set(rows * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsedNanos));
+        if (elapsedMillis <= properties.getTargetLatencyMillis()) {
+            rowsPerStatement.updateAndGet(current -> clamp(current + properties.getIncreaseStep()));
+        } else {
+            rowsPerStatement.updateAndGet(current -> clamp((int) (current * properties.getDecreaseFactor())));
+        }
+    }
+
+    private int clamp(int rows) {
+        int step = Math.max(1, properties.getIncreaseStep());
+        int aligned = Math.max(step, rows / step * step);
+        return Math.min(properties.getMaxRowsPerStatement(), Math.max(properties.getMinRowsPerStatement(), aligned));
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import lombok.RequiredArgsConstructor;
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+import io.github.Piotr7421.giftapi.repository.IdSequenceRepository;
+import io.github.Piotr7421.giftapi.strategy.KidBatchCreationStrategy;
+import io.github.Piotr7421.giftapi.strategy.model.KidSubtypeColumn;
+
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.UUID;
+
+// Serialises the already validated batch into a normalised CSV, every field quoted and
+// quotes doubled, which the database bulk loader can consume without further checks.
+// The kid type and the subtype columns follow the birth date, a column the type does not use stays empty.
+@RequiredArgsConstructor
+public abstract class BulkLoadKidWriter implements KidBatchWriter {
+
+    private static final int ESTIMATED_ROW_SIZE = 40;
+
+    private final ImportRejectWriter importRejectWriter;
+    private final IdSequenceRepository idSequenceRepository;
+
+    @Override
+    public void write(KidBatch batch, UUID importId) {
+        if (batch.size() > 0) {
+            long firstId = idSequenceRepository.reserve(IdSequenceRepository.KID_SEQUENCE, batch.size());
+            int loaded = load(normalise(batch, firstId));
+            if (loaded != batch.size()) {
+                throw new IllegalStateException(MessageFormat.format("Bulk load inserted {0} of {1} rows", loaded, batch.size()));
+            }
+        }
+        importRejectWriter.write(batch.getRejects(), importId);
+    }
+
+    protected abstract int load(byte[] csv);
+
+    protected byte[] normalise(KidBatch batch, long firstId) {
+        StringBuilder csv = new StringBuilder(batch.size() * ESTIMATED_ROW_SIZE);
+        for (int i = 0; i < batch.size(); i++) {
+            csv.append(firstId + i).append(',');
+            appendQuoted(csv, batch.getFirstName(i)).append(',');
+            appendQuoted(csv, batch.getLastName(i)).append(',');
+            csv.append(batch.getBirthDate(i)).append(',');
+            KidBatchCreationStrategy strategy = batch.getStrategy(i);
+            appendQuoted(csv, KidInsertRow.kidType(strategy));
+            for (KidSubtypeColumn column : KidSubtypeColumn.values()) {
+                csv.append(',');
+                Object value = strategy != null && strategy.subtypeColumn() == column ? batch.getSubtypeValue(i) : null;
+                if (value != null) {
+                    appendQuoted(csv, value.toString());
+                }
+            }
+            csv.append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static StringBuilder appendQuoted(StringBuilder csv, String value) {
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char current = value.charAt(i);
+            if (current == '"') {
+                csv.append('"');
+            }
+            csv.append(current);
+        }
+        return csv.append('"');
+    }
+}
@@ -0,0 +1,160 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import io.github.Piotr7421.giftapi.exceptions.ImportAlreadyRunningException;
+import io.github.Piotr7421.giftapi.exceptions.ImportCancelledException;
+import io.github.Piotr7421.giftapi.importer.model.FilePartition;
+import io.github.Piotr7421.giftapi.importer.model.ImportProgress;
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+import io.github.Piotr7421.giftapi.model.ImportCheckpoint;
+import io.github.Piotr7421.giftapi.properties.JdbcProperties;
+import io.github.Piotr7421.giftapi.repository.ImportCheckpointRepository;
+import io.github.Piotr7421.giftapi.strategy.KidBatchCreationStrategy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+// Commits every commit-interval batches together with a checkpoint, so a retried import of the
+// same file continues after the last committed record instead of starting from zero. The running
+// import holds the checkpoint, a concurrent import of the same file is rejected
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChunkedKidsImporter {
+
+    private static final int CHECKSUM_BUFFER_SIZE = 1024 * 1024;
+
+    private final KidBatchWriter kidBatchWriter;
+    private final ImportCheckpointRepository importCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcProperties jdbcProperties;
+    private final List<KidBatchCreationStrategy> kidBatchCreationStrategies;
+
+    public long importKids(Path csvPath, ImportProgress progress) throws IOException {
+        String checksum = checksum(csvPath);
+        String jobId = Objects.requireNonNullElseGet(progress.getId(), UUID::randomUUID).toString();
+        ImportCheckpoint checkpoint = claimCheckpoint(checksum, csvPath.getFileName().toString(), jobId);
+        if (checkpoint.getByteOffset() > 0) {
+            log.info("Resuming import of {} from byte {} ({} rows already committed)",
+                    checkpoint.getFileName(), checkpoint.getByteOffset(), checkpoint.getRowsCommitted());
+        }
+        KidCsvParser parser = new KidCsvParser(kidBatchCreationStrategies);
+        KidBatch batch = new KidBatch(jdbcProperties.getBatchSize());
+        try (FileChannel channel = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+            long line = checkpoint.getByteOffset() > 0
+                    ? countLines(channel, checkpoint.getByteOffset()) + 1
+                    : KidCsvParser.FIRST_DATA_LINE;
+            for (FilePartition partition : FilePartition.split(csvPath, 1)) {
+                if (partition.end() <= checkpoint.getByteOffset()) {
+                    continue;
+                }
+                long start = Math.max(partition.start(), checkpoint.getByteOffset());
+                parser.reset(channel.map(FileChannel.MapMode.READ_ONLY, start, partition.end() - start), start, line);
+                while (parser.hasRemaining()) {
+                    int rows = transactionTemplate.execute(status -> commitChunk(parser, batch, checkpoint, progress));
+                    progress.batchCommitted(rows);
+                }
+                line = parser.line();
+            }
+        } catch (IOException | RuntimeException e) {
+            // the committed chunks stay, the next import of this file resumes after them
+            importCheckpointRepository.release(checksum, jobId);
+            throw e;
+        }
+        importCheckpointRepository.deleteClaimed(checksum, jobId);
+        log.info("Imported {} rows from {}", checkpoint.getRowsCommitted(), checkpoint.getFileName());
+        return checkpoint.getRowsCommitted();
+    }
+
+    // only one import at a time may hold the checkpoint of a file, otherwise two uploads of the same
+    // file would both insert every row and overwrite each other's offset
+    private ImportCheckpoint claimCheckpoint(String checksum, String fileName, String jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minus(jdbcProperties.getCheckpointClaimTimeout());
+        if (importCheckpointRepository.claim(checksum, jobId, now, staleBefore) == 0) {
+            try {
+                importCheckpointRepository.insertClaimed(checksum, fileName, jobId, now);
+            } catch (DataIntegrityViolationException e) {
+                throw new ImportAlreadyRunningException(MessageFormat.format("File {0} is already being imported", fileName));
+            }
+        }
+        return importCheckpointRepository.findById(checksum).orElseThrow();
+    }
+
+    private int commitChunk(KidCsvParser parser, KidBatch batch, ImportCheckpoint checkpoint, ImportProgress progress) {
+        int rows = 0;
+        int commitInterval = Math.max(1, jdbcProperties.getCommitInterval());
+        for (int i = 0; i < commitInterval && parser.hasRemaining(); i++) {
+            long startOffset = parser.offset();
+            progress.rowsParsed(parser.parseInto(batch), parser.offset() - startOffset);
+            if (progress.isCancelled()) {
+                throw new ImportCancelledException("Import cancelled");
+            }
+            progress.rowsRejected(batch.getRejects().size());
+            if (!batch.isEmpty()) {
+                kidBatchWriter.write(batch, progress.getId());
+                rows += batch.size();
+                batch.clear();
+            }
+        }
+        checkpoint.setByteOffset(parser.offset());
+        checkpoint.setRowsCommitted(checkpoint.getRowsCommitted() + rows);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        // a claim taken over after the claim timeout rolls this chunk back instead of writing it twice
+        if (importCheckpointRepository.advance(checkpoint.getChecksum(), checkpoint.getJobId(), checkpoint.getByteOffset(),
+                checkpoint.getRowsCommitted(), checkpoint.getUpdatedAt()) == 0) {
+            throw new ImportAlreadyRunningException(MessageFormat
+                    .format("File {0} was taken over by another import", checkpoint.getFileName()));
+        }
+        return rows;
+    }
+
+    // the checkpoint only stores a byte offset, the line number to continue from is counted again on resume
+    private static long countLines(FileChannel channel, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHECKSUM_BUFFER_SIZE);
+        long lines = 0;
+        long position = 0;
+        while (position < end) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    lines++;
+                }
+            }
+            position += read;
+        }
+        return lines;
+    }
+
+    private static String checksum(Path csvPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHECKSUM_BUFFER_SIZE);
+            while (channel.read(buffer.clear()) != -1) {
+                digest.update(buffer.flip());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
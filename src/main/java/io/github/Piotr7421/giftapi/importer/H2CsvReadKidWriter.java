@@ -0,0 +1,53 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import io.github.Piotr7421.giftapi.repository.IdSequenceRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+
+// CSVREAD can only read from a file, so every batch is spilled to a temporary file first
+public class H2CsvReadKidWriter extends BulkLoadKidWriter {
+
+    private static final String INSERT_SELECT_SQL = "INSERT INTO kid ( id, first_name, last_name, birth_date, version, kid_type, pants_length, skirt_color ) " +
+            "SELECT CAST(id AS INT), first_name, last_name, CAST(birth_date AS DATE), 0, kid_type, " +
+            "CAST(NULLIF(pants_length, '''') AS INT), NULLIF(skirt_color, '''') " +
+            "FROM CSVREAD(''{0}'', ''ID,FIRST_NAME,LAST_NAME,BIRTH_DATE,KID_TYPE,PANTS_LENGTH,SKIRT_COLOR'', ''charset=UTF-8'')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public H2CsvReadKidWriter(JdbcTemplate jdbcTemplate, ImportRejectWriter importRejectWriter, IdSequenceRepository idSequenceRepository) {
+        super(importRejectWriter, idSequenceRepository);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    protected int load(byte[] csv) {
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile("kids-bulk", ".csv");
+            Files.write(tmp, csv);
+            // CSVREAD does not accept a bind parameter as the file name
+            String fileName = tmp.toAbsolutePath().toString().replace("'", "''");
+            return jdbcTemplate.update(MessageFormat.format(INSERT_SELECT_SQL, fileName));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteTmpFile(tmp);
+        }
+    }
+
+    private static void deleteTmpFile(Path tmp) {
+        if (tmp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tmp);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
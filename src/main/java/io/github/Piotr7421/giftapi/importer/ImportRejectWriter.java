@@ -0,0 +1,34 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import io.github.Piotr7421.giftapi.importer.model.KidReject;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class ImportRejectWriter {
+
+    private static final String INSERT_REJECT_SQL = "INSERT INTO import_reject ( import_id, line_number, byte_offset, reason, content ) " +
+            "VALUES ( ?, ?, ?, ?, ? )";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void write(List<KidReject> rejects, UUID importId) {
+        if (rejects.isEmpty()) {
+            return;
+        }
+        String id = importId == null ? null : importId.toString();
+        jdbcTemplate.batchUpdate(INSERT_REJECT_SQL, rejects, rejects.size(), (PreparedStatement ps, KidReject reject) -> {
+            ps.setString(1, id);
+            ps.setLong(2, reject.lineNumber());
+            ps.setLong(3, reject.byteOffset());
+            ps.setString(4, reject.reason());
+            ps.setString(5, reject.content());
+        });
+    }
+}
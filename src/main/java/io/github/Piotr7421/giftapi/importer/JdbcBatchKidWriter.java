@@ -0,0 +1,41 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+import io.github.Piotr7421.giftapi.repository.IdSequenceRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class JdbcBatchKidWriter implements KidBatchWriter {
+
+    // one batch for kids of every type, see KidInsertRow
+    private static final String INSERT_KID_SQL = "INSERT INTO kid ( " + KidInsertRow.COLUMNS + " ) VALUES " + KidInsertRow.VALUES;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImportRejectWriter importRejectWriter;
+    private final IdSequenceRepository idSequenceRepository;
+
+    @Override
+    public void write(KidBatch batch, UUID importId) {
+        if (batch.size() > 0) {
+            long firstId = idSequenceRepository.reserve(IdSequenceRepository.KID_SEQUENCE, batch.size());
+            jdbcTemplate.batchUpdate(INSERT_KID_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    KidInsertRow.bind(ps, 1, firstId + i, batch, i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            });
+        }
+        importRejectWriter.write(batch.getRejects(), importId);
+    }
+}
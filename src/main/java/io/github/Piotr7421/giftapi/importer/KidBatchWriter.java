@@ -0,0 +1,10 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+
+import java.util.UUID;
+
+public interface KidBatchWriter {
+
+    void write(KidBatch batch, UUID importId);
+}
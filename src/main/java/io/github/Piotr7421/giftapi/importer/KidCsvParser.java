@@ -0,0 +1,307 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+import io.github.Piotr7421.giftapi.importer.model.KidReject;
+import io.github.Piotr7421.giftapi.strategy.KidBatchCreationStrategy;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class KidCsvParser {
+
+    // line numbers are 1-based and the first line is the header
+    public static final long FIRST_DATA_LINE = 2;
+
+    private static final byte COMMA = ',';
+    private static final byte QUOTE = '"';
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+    private static final int END_OF_INPUT = -1;
+    private static final int STRING_CACHE_SIZE = 4096;
+    private static final int MAX_NAME_LENGTH = 50;
+    private static final int MAX_REJECTED_CONTENT_LENGTH = 255;
+
+    private final Utf8StringCache stringCache = new Utf8StringCache(STRING_CACHE_SIZE);
+    private final Map<String, KidBatchCreationStrategy> strategies;
+    private byte[] field = new byte[64];
+    private int fieldLength;
+    private ByteBuffer buffer;
+    private long baseOffset;
+    private long line;
+    private int start;
+    private int position;
+    private int limit;
+
+    public KidCsvParser() {
+        this(List.of());
+    }
+
+    // an optional type column after the birth date picks the strategy, a record without a type is a plain kid
+    public KidCsvParser(Collection<? extends KidBatchCreationStrategy> strategies) {
+        this.strategies = strategies.stream()
+                .collect(Collectors.toUnmodifiableMap(KidBatchCreationStrategy::kidType, Function.identity()));
+    }
+
+    public KidCsvParser reset(ByteBuffer buffer, long baseOffset, long firstLine) {
+        this.buffer = buffer;
+        this.baseOffset = baseOffset;
+        this.line = firstLine;
+        this.start = buffer.position();
+        this.position = start;
+        this.limit = buffer.limit();
+        return this;
+    }
+
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+    public long offset() {
+        return baseOffset + position - start;
+    }
+
+    public long line() {
+        return line;
+    }
+
+    // Invalid records are added to the batch as rejects, so they never stop the rows around them
+    public int parseInto(KidBatch batch) {
+        int parsed = 0;
+        while (!batch.isFull() && skipBlankLines()) {
+            int recordStart = position;
+            long recordLine = line;
+            try {
+                String firstName = readName("first name");
+                String lastName = readName("last name");
+                int terminator = readField();
+                LocalDate birthDate = parseDate();
+                KidBatchCreationStrategy strategy = null;
+                Object subtypeValue = null;
+                if (terminator == COMMA) {
+                    terminator = readField();
+                    strategy = parseType();
+                }
+                if (strategy != null) {
+                    // the subtype columns follow the type column, the strategy only reads its own one
+                    int column = strategy.subtypeColumn().ordinal();
+                    int read = 0;
+                    while (read <= column && terminator == COMMA) {
+                        terminator = readField();
+                        read++;
+                    }
+                    subtypeValue = parseSubtypeValue(strategy, read > column ? stringCache.get(field, fieldLength) : null);
+                }
+                while (terminator == COMMA) {
+                    terminator = readField();
+                }
+                batch.add(firstName, lastName, birthDate, strategy, subtypeValue);
+                parsed++;
+            } catch (RejectedRecordException e) {
+                int recordEnd = position;
+                skipRestOfRecord(recordStart);
+                batch.reject(new KidReject(recordLine, baseOffset + recordStart - start, e.getMessage(),
+                        content(recordStart, Math.max(recordEnd, position))));
+            }
+        }
+        return parsed;
+    }
+
+    private boolean skipBlankLines() {
+        while (position < limit) {
+            byte current = buffer.get(position);
+            if (current == LF) {
+                position++;
+                line++;
+            } else if (current == CR && position + 1 < limit && buffer.get(position + 1) == LF) {
+                position += 2;
+                line++;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // quotes are toggled from the record start like the chunk scanners do, so a line feed inside a quoted
+    // field after the rejected one does not end the record
+    private void skipRestOfRecord(int recordStart) {
+        boolean quoted = false;
+        for (int i = recordStart; i < position; i++) {
+            if (buffer.get(i) == QUOTE) {
+                quoted = !quoted;
+            }
+        }
+        if (!quoted && position > recordStart && buffer.get(position - 1) == LF) {
+            return;
+        }
+        while (position < limit) {
+            byte current = buffer.get(position++);
+            if (current == QUOTE) {
+                quoted = !quoted;
+            } else if (current == LF) {
+                line++;
+                if (!quoted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private String readName(String name) {
+        if (readField() != COMMA) {
+            throw new RejectedRecordException("missing fields");
+        }
+        if (fieldLength == 0) {
+            throw new RejectedRecordException(name + " is empty");
+        }
+        String value = stringCache.get(field, fieldLength);
+        if (fieldLength > MAX_NAME_LENGTH && value.length() > MAX_NAME_LENGTH) {
+            throw new RejectedRecordException(name + " is longer than " + MAX_NAME_LENGTH + " characters");
+        }
+        return value;
+    }
+
+    private int readField() {
+        fieldLength = 0;
+        if (position < limit && buffer.get(position) == QUOTE) {
+            return readQuotedField();
+        }
+        int fieldStart = position;
+        while (position < limit) {
+            byte current = buffer.get(position);
+            if (current == COMMA || current == LF) {
+                copyField(fieldStart, position);
+                position++;
+                if (current == LF) {
+                    line++;
+                }
+                return current;
+            }
+            position++;
+        }
+        copyField(fieldStart, position);
+        return END_OF_INPUT;
+    }
+
+    private int readQuotedField() {
+        position++;
+        while (position < limit) {
+            byte current = buffer.get(position++);
+            if (current != QUOTE) {
+                if (current == LF) {
+                    line++;
+                }
+                append(current);
+            } else if (position < limit && buffer.get(position) == QUOTE) {
+                append(QUOTE);
+                position++;
+            } else {
+                if (position < limit && buffer.get(position) == CR) {
+                    position++;
+                }
+                if (position >= limit) {
+                    return END_OF_INPUT;
+                }
+                byte terminator = buffer.get(position);
+                if (terminator != COMMA && terminator != LF) {
+                    throw new RejectedRecordException("unexpected character after closing quote");
+                }
+                position++;
+                if (terminator == LF) {
+                    line++;
+                }
+                return terminator;
+            }
+        }
+        throw new RejectedRecordException("unterminated quoted field");
+    }
+
+    private void copyField(int from, int to) {
+        int length = to - from;
+        if (length > 0 && buffer.get(to - 1) == CR) {
+            length--;
+        }
+        ensureCapacity(length);
+        buffer.get(from, field, 0, length);
+        fieldLength = length;
+    }
+
+    private void append(byte value) {
+        ensureCapacity(fieldLength + 1);
+        field[fieldLength++] = value;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (field.length < capacity) {
+            field = Arrays.copyOf(field, Math.max(capacity, field.length * 2));
+        }
+    }
+
+    private LocalDate parseDate() {
+        if (fieldLength != 10 || field[4] != '-' || field[7] != '-') {
+            throw new RejectedRecordException("birth date is not in yyyy-MM-dd format");
+        }
+        try {
+            return LocalDate.of(digits(0, 4), digits(5, 2), digits(8, 2));
+        } catch (DateTimeException e) {
+            throw new RejectedRecordException("birth date does not exist");
+        }
+    }
+
+    private int digits(int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = field[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new RejectedRecordException("birth date is not in yyyy-MM-dd format");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private KidBatchCreationStrategy parseType() {
+        if (fieldLength == 0) {
+            return null;
+        }
+        KidBatchCreationStrategy strategy = strategies.get(stringCache.get(field, fieldLength));
+        if (strategy == null) {
+            throw new RejectedRecordException("kid type is unknown");
+        }
+        return strategy;
+    }
+
+    private static Object parseSubtypeValue(KidBatchCreationStrategy strategy, String value) {
+        try {
+            return strategy.parseSubtypeValue(value);
+        } catch (IllegalArgumentException e) {
+            throw new RejectedRecordException(e.getMessage());
+        }
+    }
+
+    private String content(int from, int to) {
+        int end = to;
+        while (end > from && (buffer.get(end - 1) == LF || buffer.get(end - 1) == CR)) {
+            end--;
+        }
+        byte[] bytes = new byte[Math.min(end - from, MAX_REJECTED_CONTENT_LENGTH)];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // rejects are expected to be rare, but a file full of them must not pay for stack traces
+    private static class RejectedRecordException extends RuntimeException {
+
+        RejectedRecordException(String reason) {
+            super(reason, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+import io.github.Piotr7421.giftapi.strategy.KidBatchCreationStrategy;
+import io.github.Piotr7421.giftapi.strategy.model.KidSubtypeColumn;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+// Every row of an insert carries all subtype columns, so kids of every type share one statement; the
+// columns a row's type does not use are bound as NULL and the row's strategy binds its own column
+final class KidInsertRow {
+
+    static final String PLAIN_KID_TYPE = "Kid";
+    static final String COLUMNS = "id, first_name, last_name, birth_date, version, kid_type" + Arrays.stream(KidSubtypeColumn.values())
+            .map(column -> ", " + column.getColumnName())
+            .collect(Collectors.joining());
+    static final String VALUES = "( ?, ?, ?, ?, 0, ?" + ", ?".repeat(KidSubtypeColumn.values().length) + " )";
+
+    private static final KidSubtypeColumn[] SUBTYPE_COLUMNS = KidSubtypeColumn.values();
+
+    private KidInsertRow() {
+    }
+
+    static String kidType(KidBatchCreationStrategy strategy) {
+        return strategy == null ? PLAIN_KID_TYPE : strategy.kidType();
+    }
+
+    // returns the index of the first parameter after the row
+    static int bind(PreparedStatement ps, int parameter, long id, KidBatch batch, int index) throws SQLException {
+        KidBatchCreationStrategy strategy = batch.getStrategy(index);
+        ps.setLong(parameter, id);
+        ps.setString(parameter + 1, batch.getFirstName(index));
+        ps.setString(parameter + 2, batch.getLastName(index));
+        ps.setObject(parameter + 3, batch.getBirthDate(index));
+        ps.setString(parameter + 4, kidType(strategy));
+        int firstSubtypeParameter = parameter + 5;
+        for (KidSubtypeColumn column : SUBTYPE_COLUMNS) {
+            if (strategy == null || strategy.subtypeColumn() != column) {
+                ps.setNull(firstSubtypeParameter + column.ordinal(), column.getSqlType());
+            }
+        }
+        if (strategy != null) {
+            strategy.bindSubtypeValue(ps, firstSubtypeParameter + strategy.subtypeColumn().ordinal(), batch.getSubtypeValue(index));
+        }
+        return firstSubtypeParameter + SUBTYPE_COLUMNS.length;
+    }
+}
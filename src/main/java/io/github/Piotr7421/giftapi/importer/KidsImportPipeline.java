@@ -0,0 +1,350 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import io.github.Piotr7421.giftapi.exceptions.ImportCancelledException;
+import io.github.Piotr7421.giftapi.importer.model.ByteChunk;
+import io.github.Piotr7421.giftapi.importer.model.FilePartition;
+import io.github.Piotr7421.giftapi.importer.model.ImportProgress;
+import io.github.Piotr7421.giftapi.importer.model.ImportStage;
+import io.github.Piotr7421.giftapi.importer.model.ImportStatistics;
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+import io.github.Piotr7421.giftapi.properties.AsyncTaskExecutorProperties;
+import io.github.Piotr7421.giftapi.properties.JdbcProperties;
+import io.github.Piotr7421.giftapi.strategy.KidBatchCreationStrategy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KidsImportPipeline {
+
+    private static final ByteChunk END_OF_CHUNKS = new ByteChunk(ByteBuffer.allocate(0), -1, 0, 0);
+    private static final KidBatch END_OF_BATCHES = new KidBatch(0);
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final KidBatchWriter kidBatchWriter;
+    private final JdbcProperties jdbcProperties;
+    private final AsyncTaskExecutorProperties taskExecutorProperties;
+    private final List<KidBatchCreationStrategy> kidBatchCreationStrategies;
+
+    public ImportStatistics importKids(Path csvPath, ImportProgress progress) throws IOException {
+        List<FilePartition> partitions = FilePartition.split(csvPath, Math.max(1, taskExecutorProperties.getReaderThreads()));
+        try (FileChannel channel = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+            List<CompletableFuture<Long>> partitionLines = partitions.stream()
+                    .map(partition -> new CompletableFuture<Long>())
+                    .toList();
+            return execute(partitions.size(), progress,
+                    (run, index) -> run.readPartition(channel, partitions.get(index), partitionLines, index));
+        }
+    }
+
+    public ImportStatistics importKids(InputStream csvStream, ImportProgress progress) throws IOException {
+        return execute(1, progress, (run, index) -> run.readStream(csvStream));
+    }
+
+    private ImportStatistics execute(int readers, ImportProgress progress, ReadWorker reader) throws IOException {
+        int parsers = Math.max(1, taskExecutorProperties.getParserThreads());
+        int writers = Math.max(1, jdbcProperties.getWriterThreads());
+        ExecutorService executor = Executors.newFixedThreadPool(readers + parsers + writers,
+                new CustomizableThreadFactory(taskExecutorProperties.getThreadNamePrefix() + "import-"));
+        try {
+            ImportStatistics statistics = new PipelineRun(executor, progress, parsers, writers).run(readers, reader);
+            for (ImportStage stage : ImportStage.values()) {
+                log.info("{} stage: {} rows in {}ms ({} rows/s)", stage, statistics.getRows(stage),
+                        statistics.getElapsedMillis(stage), statistics.getRowsPerSecond(stage));
+            }
+            return statistics;
+        } finally {
+            shutdown(executor);
+        }
+    }
+
+    // An interrupt does not stop a JDBC batch that is already running, so the import only returns once
+    // its writers are done and the rows counted by the job are the rows committed
+    private static void shutdown(ExecutorService executor) {
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Import workers still running {}s after shutdown, rows they commit are not counted",
+                        SHUTDOWN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for import workers to stop");
+        }
+    }
+
+    @FunctionalInterface
+    private interface StageWorker {
+
+        void run(int index) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface ReadWorker {
+
+        void read(PipelineRun run, int index) throws Exception;
+    }
+
+    private class PipelineRun {
+
+        private final ExecutorService executor;
+        private final ImportProgress progress;
+        private final int parsers;
+        private final int writers;
+        private final int batchSize = jdbcProperties.getBatchSize();
+        private final ImportStatistics statistics = new ImportStatistics();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final CompletableFuture<Void> aborted = new CompletableFuture<>();
+        private final BlockingQueue<ByteChunk> chunks;
+        private final BlockingQueue<KidBatch> filledBatches;
+        private final BlockingQueue<KidBatch> freeBatches;
+
+        PipelineRun(ExecutorService executor, ImportProgress progress, int parsers, int writers) {
+            this.executor = executor;
+            this.progress = progress;
+            this.parsers = parsers;
+            this.writers = writers;
+            int queueCapacity = Math.max(1, taskExecutorProperties.getPipelineQueueCapacity());
+            chunks = new ArrayBlockingQueue<>(queueCapacity);
+            filledBatches = new ArrayBlockingQueue<>(queueCapacity);
+            // enough batches for a full queue plus one in the hands of every parser and writer
+            int batches = queueCapacity + parsers + writers;
+            freeBatches = new ArrayBlockingQueue<>(batches);
+            for (int i = 0; i < batches; i++) {
+                freeBatches.add(new KidBatch(batchSize));
+            }
+        }
+
+        ImportStatistics run(int readers, ReadWorker reader) throws IOException {
+            try {
+                CompletableFuture<Void> reading = startStage(ImportStage.READ, readers,
+                        index -> reader.read(this, index), () -> signalEnd(chunks, END_OF_CHUNKS, parsers));
+                CompletableFuture<Void> parsing = startStage(ImportStage.PARSE, parsers,
+                        index -> parseChunks(), () -> signalEnd(filledBatches, END_OF_BATCHES, writers));
+                CompletableFuture<Void> writing = startStage(ImportStage.WRITE, writers,
+                        index -> writeBatches(), () -> {
+                        });
+                CompletableFuture.anyOf(CompletableFuture.allOf(reading, parsing, writing), aborted).get();
+            } catch (RejectedExecutionException e) {
+                // a worker has already failed and shut the executor down before every stage was started
+                fail(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            } catch (ExecutionException e) {
+                fail(e.getCause());
+            }
+            Throwable cause = failure.get();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause != null) {
+                throw new IllegalStateException("Import pipeline failed", cause);
+            }
+            return statistics;
+        }
+
+        private CompletableFuture<Void> startStage(ImportStage stage, int workers, StageWorker worker, Runnable onCompletion) {
+            CompletableFuture<?>[] futures = IntStream.range(0, workers)
+                    .mapToObj(index -> CompletableFuture.runAsync(() -> runWorker(worker, index), executor))
+                    .toArray(CompletableFuture[]::new);
+            return CompletableFuture.allOf(futures).thenRun(() -> {
+                statistics.finish(stage);
+                onCompletion.run();
+            });
+        }
+
+        private void runWorker(StageWorker worker, int index) {
+            try {
+                worker.run(index);
+            } catch (Exception e) {
+                fail(e);
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void fail(Throwable cause) {
+            if (failure.compareAndSet(null, cause)) {
+                executor.shutdownNow();
+                aborted.complete(null);
+            }
+        }
+
+        private <T> void signalEnd(BlockingQueue<T> queue, T endMarker, int consumers) {
+            try {
+                for (int i = 0; i < consumers; i++) {
+                    queue.put(endMarker);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+
+        // Every reader counts the lines of its own partition first, so the readers of later partitions
+        // know their first line number after a parallel pass instead of a sequential scan of the file
+        private void readPartition(FileChannel channel, FilePartition partition, List<CompletableFuture<Long>> partitionLines,
+                                   int index) throws IOException, InterruptedException, ExecutionException {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, partition.start(), partition.length());
+            int limit = mapped.limit();
+            partitionLines.get(index).complete(countLines(mapped, limit));
+            long line = KidCsvParser.FIRST_DATA_LINE;
+            for (int i = 0; i < index; i++) {
+                line += partitionLines.get(i).get();
+            }
+            int chunkStart = 0;
+            long chunkLine = line;
+            int lines = 0;
+            boolean quoted = false;
+            for (int i = 0; i < limit; i++) {
+                byte current = mapped.get(i);
+                if (current == '"') {
+                    quoted = !quoted;
+                } else if (current == '\n') {
+                    line++;
+                    if (!quoted && ++lines == batchSize) {
+                        publishChunk(new ByteChunk(mapped.slice(chunkStart, i + 1 - chunkStart),
+                                partition.start() + chunkStart, chunkLine, lines));
+                        chunkStart = i + 1;
+                        chunkLine = line;
+                        lines = 0;
+                    }
+                }
+            }
+            if (chunkStart < limit) {
+                int trailingLines = mapped.get(limit - 1) == '\n' ? lines : lines + 1;
+                publishChunk(new ByteChunk(mapped.slice(chunkStart, limit - chunkStart),
+                        partition.start() + chunkStart, chunkLine, trailingLines));
+            }
+        }
+
+        private long countLines(MappedByteBuffer mapped, int limit) {
+            long lines = 0;
+            for (int i = 0; i < limit; i++) {
+                if (mapped.get(i) == '\n') {
+                    lines++;
+                }
+            }
+            return lines;
+        }
+
+        private void readStream(InputStream csvStream) throws IOException, InterruptedException {
+            byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            byte[] chunk = new byte[STREAM_BUFFER_SIZE];
+            int length = 0;
+            int lines = 0;
+            long offset = 0;
+            long line = KidCsvParser.FIRST_DATA_LINE;
+            long chunkLine = line;
+            boolean header = true;
+            boolean quoted = false;
+            int read;
+            // blocking on the bounded chunk queue stops reading the request body, which throttles the client
+            while ((read = csvStream.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    byte current = buffer[i];
+                    if (header) {
+                        // Skip the first line (header)
+                        header = current != '\n';
+                        offset++;
+                        continue;
+                    }
+                    if (length == chunk.length) {
+                        chunk = Arrays.copyOf(chunk, chunk.length * 2);
+                    }
+                    chunk[length++] = current;
+                    if (current == '"') {
+                        quoted = !quoted;
+                    } else if (current == '\n') {
+                        line++;
+                        if (!quoted && ++lines == batchSize) {
+                            publishChunk(new ByteChunk(ByteBuffer.wrap(chunk, 0, length), offset, chunkLine, lines));
+                            offset += length;
+                            chunkLine = line;
+                            chunk = new byte[chunk.length];
+                            length = 0;
+                            lines = 0;
+                        }
+                    }
+                }
+            }
+            if (length > 0) {
+                int trailingLines = chunk[length - 1] == '\n' ? lines : lines + 1;
+                publishChunk(new ByteChunk(ByteBuffer.wrap(chunk, 0, length), offset, chunkLine, trailingLines));
+            }
+        }
+
+        private void publishChunk(ByteChunk chunk) throws InterruptedException {
+            checkCancelled();
+            statistics.addRows(ImportStage.READ, chunk.lines());
+            chunks.put(chunk);
+        }
+
+        private void parseChunks() throws InterruptedException {
+            KidCsvParser parser = new KidCsvParser(kidBatchCreationStrategies);
+            ByteChunk chunk;
+            while ((chunk = chunks.take()) != END_OF_CHUNKS) {
+                parser.reset(chunk.buffer(), chunk.offset(), chunk.firstLine());
+                while (parser.hasRemaining()) {
+                    KidBatch batch = freeBatches.take();
+                    long startOffset = parser.offset();
+                    int rows = parser.parseInto(batch);
+                    statistics.addRows(ImportStage.PARSE, rows);
+                    progress.rowsParsed(rows, parser.offset() - startOffset);
+                    progress.rowsRejected(batch.getRejects().size());
+                    if (batch.isEmpty()) {
+                        freeBatches.put(batch);
+                    } else {
+                        filledBatches.put(batch);
+                    }
+                }
+            }
+        }
+
+        private void writeBatches() throws InterruptedException {
+            KidBatch batch;
+            while ((batch = filledBatches.take()) != END_OF_BATCHES) {
+                // cancellation is only honoured between batches, a started batch is always written
+                checkCancelled();
+                kidBatchWriter.write(batch, progress.getId());
+                statistics.addRows(ImportStage.WRITE, batch.size());
+                progress.batchCommitted(batch.size());
+                batch.clear();
+                freeBatches.put(batch);
+            }
+        }
+
+        private void checkCancelled() {
+            if (progress.isCancelled()) {
+                throw new ImportCancelledException("Import cancelled");
+            }
+        }
+    }
+}
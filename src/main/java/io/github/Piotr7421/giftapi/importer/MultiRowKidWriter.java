@@ -0,0 +1,66 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+import io.github.Piotr7421.giftapi.repository.IdSequenceRepository;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// One INSERT ... VALUES (...),(...) statement per slice of the batch, the slice size is
+// decided by the AdaptiveBatchSizer from the latency of the previous statements
+public class MultiRowKidWriter implements KidBatchWriter {
+
+    private static final String INSERT_KID_SQL = "INSERT INTO kid ( " + KidInsertRow.COLUMNS + " ) VALUES ";
+    private static final String ROW_VALUES = KidInsertRow.VALUES;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImportRejectWriter importRejectWriter;
+    private final AdaptiveBatchSizer adaptiveBatchSizer;
+    private final IdSequenceRepository idSequenceRepository;
+    private final Map<Integer, String> statements = new ConcurrentHashMap<>();
+
+    public MultiRowKidWriter(JdbcTemplate jdbcTemplate, ImportRejectWriter importRejectWriter, AdaptiveBatchSizer adaptiveBatchSizer,
+                             IdSequenceRepository idSequenceRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.importRejectWriter = importRejectWriter;
+        this.adaptiveBatchSizer = adaptiveBatchSizer;
+        this.idSequenceRepository = idSequenceRepository;
+    }
+
+    @Override
+    public void write(KidBatch batch, UUID importId) {
+        long firstId = batch.size() > 0 ? idSequenceRepository.reserve(IdSequenceRepository.KID_SEQUENCE, batch.size()) : 0;
+        int from = 0;
+        while (from < batch.size()) {
+            int rowsPerStatement = adaptiveBatchSizer.getRowsPerStatement();
+            int rows = Math.min(rowsPerStatement, batch.size() - from);
+            // full slices always have one of the few step-aligned sizes, the tail of a batch is built ad hoc
+            String sql = rows == rowsPerStatement ? statements.computeIfAbsent(rows, MultiRowKidWriter::buildSql) : buildSql(rows);
+            int first = from;
+            long startTime = System.nanoTime();
+            jdbcTemplate.update(sql, ps -> {
+                int parameter = 1;
+                for (int i = first; i < first + rows; i++) {
+                    parameter = KidInsertRow.bind(ps, parameter, firstId + i, batch, i);
+                }
+            });
+            adaptiveBatchSizer.observe(rows, System.nanoTime() - startTime);
+            from += rows;
+        }
+        importRejectWriter.write(batch.getRejects(), importId);
+    }
+
+    private static String buildSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_KID_SQL.length() + rows * (ROW_VALUES.length() + 1));
+        sql.append(INSERT_KID_SQL);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(ROW_VALUES);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import com.mysql.cj.jdbc.JdbcStatement;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.StatementCallback;
+import io.github.Piotr7421.giftapi.repository.IdSequenceRepository;
+
+import java.io.ByteArrayInputStream;
+
+// Requires allowLoadLocalInfile=true on the connection and local_infile enabled on the server
+public class MySqlLoadDataKidWriter extends BulkLoadKidWriter {
+
+    private static final String LOAD_DATA_SQL = "LOAD DATA LOCAL INFILE 'kids.csv' INTO TABLE kid " +
+            "CHARACTER SET utf8mb4 " +
+            "FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '' " +
+            "LINES TERMINATED BY '\\n' " +
+            "( id, first_name, last_name, birth_date, kid_type, @pants_length, @skirt_color ) " +
+            "SET version = 0, pants_length = NULLIF(@pants_length, ''), skirt_color = NULLIF(@skirt_color, '')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MySqlLoadDataKidWriter(JdbcTemplate jdbcTemplate, ImportRejectWriter importRejectWriter, IdSequenceRepository idSequenceRepository) {
+        super(importRejectWriter, idSequenceRepository);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    protected int load(byte[] csv) {
+        return jdbcTemplate.execute((StatementCallback<Integer>) statement -> {
+            // the driver streams this input instead of reading a file named in the statement
+            statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(new ByteArrayInputStream(csv));
+            return statement.executeUpdate(LOAD_DATA_SQL);
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Direct-mapped cache of decoded strings: names repeat a lot in kid files, so most fields
+// resolve to an already decoded String instead of allocating a new one.
+class Utf8StringCache {
+
+    private static final int MAX_CACHED_LENGTH = 64;
+
+    private final byte[][] keys;
+    private final String[] values;
+    private final int mask;
+
+    Utf8StringCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        keys = new byte[size][];
+        values = new String[size];
+        mask = size - 1;
+    }
+
+    String get(byte[] bytes, int length) {
+        if (length > MAX_CACHED_LENGTH) {
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        byte[] key = keys[slot];
+        if (key != null && Arrays.equals(key, 0, key.length, bytes, 0, length)) {
+            return values[slot];
+        }
+        String value = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        keys[slot] = Arrays.copyOf(bytes, length);
+        values[slot] = value;
+        return value;
+    }
+}
@@ -0,0 +1,6 @@
+package io.github.Piotr7421.giftapi.importer.model;
+
+import java.nio.ByteBuffer;
+
+public record ByteChunk(ByteBuffer buffer, long offset, long firstLine, int lines) {
+}
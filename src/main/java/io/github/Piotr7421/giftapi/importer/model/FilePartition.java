@@ -0,0 +1,63 @@
+package io.github.Piotr7421.giftapi.importer.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public record FilePartition(long start, long end) {
+
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+    private static final long MAX_PARTITION_SIZE = 1L << 30;
+
+    public long length() {
+        return end - start;
+    }
+
+    public static List<FilePartition> split(Path csvPath, int partitions) throws IOException {
+        try (FileChannel channel = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            // Skip the first line (header), every partition starts right after a line feed outside quotes
+            long dataStart = nextRecordStart(channel, 0, 0);
+            // every partition has to fit into a single memory mapped buffer
+            int count = (int) Math.max(partitions, (size - dataStart + MAX_PARTITION_SIZE - 1) / MAX_PARTITION_SIZE);
+            List<FilePartition> result = new ArrayList<>(count);
+            long start = dataStart;
+            for (int i = 1; i <= count && start < size; i++) {
+                long end = i == count
+                        ? size
+                        : nextRecordStart(channel, start, Math.max(start, dataStart + (size - dataStart) * i / count));
+                if (end > start) {
+                    result.add(new FilePartition(start, end));
+                    start = end;
+                }
+            }
+            return result;
+        }
+    }
+
+    // A quoted field may hold line feeds, so the quote state is followed from the previous record start
+    // instead of cutting at the first line feed after the split point. Every byte is scanned once over
+    // all partitions, which is cheap next to parsing them. "" inside a quoted field toggles twice.
+    private static long nextRecordStart(FileChannel channel, long recordStart, long from) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = recordStart;
+        boolean quoted = false;
+        int read;
+        while ((read = channel.read(buffer.clear(), position)) > 0) {
+            for (int i = 0; i < read; i++) {
+                byte current = buffer.get(i);
+                if (current == '"') {
+                    quoted = !quoted;
+                } else if (current == '\n' && !quoted && position + i >= from) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return channel.size();
+    }
+}
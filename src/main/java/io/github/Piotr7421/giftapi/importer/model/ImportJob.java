@@ -0,0 +1,115 @@
+package io.github.Piotr7421.giftapi.importer.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counters are written by every import worker, so they are kept lock-free
+@Getter
+@RequiredArgsConstructor
+public class ImportJob implements ImportProgress {
+
+    private final UUID id = UUID.randomUUID();
+    private final String fileName;
+    private final long totalBytes;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final AtomicReference<ImportJobStatus> status = new AtomicReference<>(ImportJobStatus.QUEUED);
+    private final LongAdder rowsParsed = new LongAdder();
+    private final LongAdder bytesParsed = new LongAdder();
+    private final LongAdder rowsRejected = new LongAdder();
+    private final LongAdder rowsInserted = new LongAdder();
+    private final LongAdder batchesCommitted = new LongAdder();
+    private volatile boolean cancelled;
+    private volatile long startNanos;
+    private volatile long finishNanos;
+    private volatile LocalDateTime finishedAt;
+    private volatile String failure;
+
+    @Override
+    public void rowsParsed(int rows, long bytes) {
+        rowsParsed.add(rows);
+        bytesParsed.add(bytes);
+    }
+
+    @Override
+    public void rowsRejected(int rows) {
+        rowsRejected.add(rows);
+    }
+
+    @Override
+    public void batchCommitted(int rows) {
+        rowsInserted.add(rows);
+        batchesCommitted.increment();
+    }
+
+    public boolean start() {
+        if (!status.compareAndSet(ImportJobStatus.QUEUED, ImportJobStatus.RUNNING)) {
+            return false;
+        }
+        startNanos = System.nanoTime();
+        return true;
+    }
+
+    public void cancel() {
+        cancelled = true;
+        if (status.compareAndSet(ImportJobStatus.QUEUED, ImportJobStatus.CANCELLED)) {
+            finishedAt = LocalDateTime.now();
+        }
+    }
+
+    public void complete() {
+        finish(ImportJobStatus.COMPLETED);
+    }
+
+    public void markCancelled() {
+        finish(ImportJobStatus.CANCELLED);
+    }
+
+    public void fail(String failure) {
+        this.failure = failure;
+        finish(ImportJobStatus.FAILED);
+    }
+
+    public ImportJobStatus getStatus() {
+        return status.get();
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    public long getElapsedMillis() {
+        if (startNanos == 0) {
+            return 0;
+        }
+        long end = finishNanos == 0 ? System.nanoTime() : finishNanos;
+        return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+    }
+
+    public long getRowsPerSecond() {
+        return rowsInserted.sum() * 1000 / Math.max(1, getElapsedMillis());
+    }
+
+    // total rows are extrapolated from the share of bytes parsed so far
+    public Long getEtaMillis() {
+        long parsedBytes = bytesParsed.sum();
+        long rowsPerSecond = getRowsPerSecond();
+        if (getStatus() != ImportJobStatus.RUNNING || totalBytes <= 0 || parsedBytes == 0 || rowsPerSecond == 0) {
+            return null;
+        }
+        long rejectedRows = rowsRejected.sum();
+        long expectedRows = (rowsParsed.sum() + rejectedRows) * totalBytes / parsedBytes;
+        return Math.max(0, expectedRows - rejectedRows - rowsInserted.sum()) * 1000 / rowsPerSecond;
+    }
+
+    private void finish(ImportJobStatus finalStatus) {
+        finishNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+        status.set(finalStatus);
+    }
+}
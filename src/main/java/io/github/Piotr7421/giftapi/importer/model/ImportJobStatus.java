@@ -0,0 +1,9 @@
+package io.github.Piotr7421.giftapi.importer.model;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
@@ -0,0 +1,8 @@
+package io.github.Piotr7421.giftapi.importer.model;
+
+public enum ImportMode {
+
+    SEQUENTIAL,
+    PIPELINED,
+    CHUNKED
+}
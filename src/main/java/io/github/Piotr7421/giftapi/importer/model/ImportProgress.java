@@ -0,0 +1,26 @@
+package io.github.Piotr7421.giftapi.importer.model;
+
+import java.util.UUID;
+
+public interface ImportProgress {
+
+    ImportProgress NONE = new ImportProgress() {
+    };
+
+    default UUID getId() {
+        return null;
+    }
+
+    default void rowsParsed(int rows, long bytes) {
+    }
+
+    default void rowsRejected(int rows) {
+    }
+
+    default void batchCommitted(int rows) {
+    }
+
+    default boolean isCancelled() {
+        return false;
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.Piotr7421.giftapi.importer.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ImportStatistics {
+
+    private final long startNanos = System.nanoTime();
+    private final Map<ImportStage, LongAdder> rows = new EnumMap<>(ImportStage.class);
+    private final Map<ImportStage, Long> finishNanos = new EnumMap<>(ImportStage.class);
+
+    public ImportStatistics() {
+        for (ImportStage stage : ImportStage.values()) {
+            rows.put(stage, new LongAdder());
+        }
+    }
+
+    public void addRows(ImportStage stage, int count) {
+        rows.get(stage).add(count);
+    }
+
+    public synchronized void finish(ImportStage stage) {
+        finishNanos.put(stage, System.nanoTime());
+    }
+
+    public long getRows(ImportStage stage) {
+        return rows.get(stage).sum();
+    }
+
+    public synchronized long getElapsedMillis(ImportStage stage) {
+        long end = finishNanos.getOrDefault(stage, System.nanoTime());
+        return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+    }
+
+    public long getRowsPerSecond(ImportStage stage) {
+        long elapsedMillis = Math.max(1, getElapsedMillis(stage));
+        return getRows(stage) * 1000 / elapsedMillis;
+    }
+}
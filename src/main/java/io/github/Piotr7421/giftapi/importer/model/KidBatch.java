@@ -0,0 +1,90 @@
+package io.github.Piotr7421.giftapi.importer.model;
+
+import io.github.Piotr7421.giftapi.strategy.KidBatchCreationStrategy;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class KidBatch {
+
+    private final String[] firstNames;
+    private final String[] lastNames;
+    private final LocalDate[] birthDates;
+    private final KidBatchCreationStrategy[] strategies;
+    private final Object[] subtypeValues;
+    private final List<KidReject> rejects = new ArrayList<>();
+    private int size;
+
+    public KidBatch(int capacity) {
+        firstNames = new String[capacity];
+        lastNames = new String[capacity];
+        birthDates = new LocalDate[capacity];
+        strategies = new KidBatchCreationStrategy[capacity];
+        subtypeValues = new Object[capacity];
+    }
+
+    public void add(String firstName, String lastName, LocalDate birthDate) {
+        add(firstName, lastName, birthDate, null, null);
+    }
+
+    // a null strategy stands for a plain kid without subtype columns
+    public void add(String firstName, String lastName, LocalDate birthDate, KidBatchCreationStrategy strategy, Object subtypeValue) {
+        firstNames[size] = firstName;
+        lastNames[size] = lastName;
+        birthDates[size] = birthDate;
+        strategies[size] = strategy;
+        subtypeValues[size] = subtypeValue;
+        size++;
+    }
+
+    public void reject(KidReject reject) {
+        rejects.add(reject);
+    }
+
+    public String getFirstName(int index) {
+        return firstNames[index];
+    }
+
+    public String getLastName(int index) {
+        return lastNames[index];
+    }
+
+    public LocalDate getBirthDate(int index) {
+        return birthDates[index];
+    }
+
+    public KidBatchCreationStrategy getStrategy(int index) {
+        return strategies[index];
+    }
+
+    public Object getSubtypeValue(int index) {
+        return subtypeValues[index];
+    }
+
+    public List<KidReject> getRejects() {
+        return rejects;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return firstNames.length;
+    }
+
+    // rejects take up capacity as well, so a run of invalid records cannot grow a batch without bound
+    public boolean isEmpty() {
+        return size == 0 && rejects.isEmpty();
+    }
+
+    public boolean isFull() {
+        return size + rejects.size() >= firstNames.length;
+    }
+
+    public void clear() {
+        size = 0;
+        rejects.clear();
+    }
+}
@@ -0,0 +1,4 @@
+package io.github.Piotr7421.giftapi.importer.model;
+
+public record KidReject(long lineNumber, long byteOffset, String reason, String content) {
+}
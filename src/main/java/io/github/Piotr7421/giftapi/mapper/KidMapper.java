@@ -6,13 +6,16 @@ import io.github.Piotr7421.giftapi.model.Kid;
 import io.github.Piotr7421.giftapi.model.command.CreateKidCommand;
 import io.github.Piotr7421.giftapi.model.command.UpdateKidCommand;
 import io.github.Piotr7421.giftapi.model.dto.KidDto;
+import io.github.Piotr7421.giftapi.model.dto.KidWithGiftsDto;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = GiftMapper.class)
 public interface KidMapper {
 
     Kid mapFromCommand(CreateKidCommand command);
 
     KidDto mapToDto(Kid kid);
 
+    KidWithGiftsDto mapToDtoWithGifts(Kid kid);
+
     void updateFromCommand(@MappingTarget Kid kid, UpdateKidCommand command);
 }
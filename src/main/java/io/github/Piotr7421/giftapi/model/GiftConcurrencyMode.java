@@ -0,0 +1,6 @@
+package io.github.Piotr7421.giftapi.model;
+
+public enum GiftConcurrencyMode {
+    CONDITIONAL_UPDATE,
+    OPTIMISTIC
+}
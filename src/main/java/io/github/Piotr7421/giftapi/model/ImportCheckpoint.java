@@ -0,0 +1,28 @@
+package io.github.Piotr7421.giftapi.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportCheckpoint {
+
+    @Id
+    private String checksum;
+    private String fileName;
+    private long byteOffset;
+    private long rowsCommitted;
+    private LocalDateTime updatedAt;
+    private String jobId;
+}
@@ -1,5 +1,6 @@
 package io.github.Piotr7421.giftapi.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.DiscriminatorColumn;
 import jakarta.persistence.DiscriminatorType;
 import jakarta.persistence.Entity;
@@ -9,6 +10,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.TableGenerator;
 import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -32,7 +35,9 @@ import java.util.Set;
 public class Kid {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "kid_id")
+    @TableGenerator(name = "kid_id", table = "id_sequence", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "kid", allocationSize = 50)
     private int id;
     private String firstName;
     private String lastName;
@@ -41,7 +46,12 @@ public class Kid {
     @Version
     private int version;
 
+    // maintained only by the conditional updates in KidRepository, never written from the entity
+    @Column(insertable = false, updatable = false)
+    private int giftCount;
+
     @OneToMany(mappedBy = "kid")
+    @OrderBy("id")
     @Builder.Default
     private Set<Gift> gifts = new HashSet<>();
 
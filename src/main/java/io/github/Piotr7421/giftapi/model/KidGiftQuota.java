@@ -0,0 +1,8 @@
+package io.github.Piotr7421.giftapi.model;
+
+public interface KidGiftQuota {
+
+    int getVersion();
+
+    int getGiftCount();
+}
@@ -0,0 +1,19 @@
+package io.github.Piotr7421.giftapi.model.command;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+@Data
+@Accessors(chain = true)
+public class CreateBulkGiftsCommand {
+
+    @Valid
+    @NotEmpty(message = "EMPTY_VALUE")
+    @Size(max = 1000, message = "TOO_MANY_VALUES")
+    private List<KidGiftCommand> gifts;
+}
@@ -0,0 +1,18 @@
+package io.github.Piotr7421.giftapi.model.command;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class KidGiftCommand {
+
+    @NotNull(message = "NULL_VALUE")
+    private Integer kidId;
+
+    @Valid
+    @NotNull(message = "NULL_VALUE")
+    private CreateGiftCommand gift;
+}
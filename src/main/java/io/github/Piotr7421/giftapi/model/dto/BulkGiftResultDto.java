@@ -0,0 +1,14 @@
+package io.github.Piotr7421.giftapi.model.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BulkGiftResultDto {
+
+    private int kidId;
+    private int status;
+    private GiftDto gift;
+    private String message;
+}
@@ -0,0 +1,14 @@
+package io.github.Piotr7421.giftapi.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CursorPageDto<T> {
+
+    private List<T> content;
+    private String next;
+}
@@ -1,10 +1,12 @@
 package io.github.Piotr7421.giftapi.model.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class GiftDto {
 
     private int id;
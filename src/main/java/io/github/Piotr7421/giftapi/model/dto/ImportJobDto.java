@@ -0,0 +1,25 @@
+package io.github.Piotr7421.giftapi.model.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class ImportJobDto {
+
+    private UUID id;
+    private String fileName;
+    private String status;
+    private long rowsParsed;
+    private long rowsRejected;
+    private long rowsInserted;
+    private long batchesCommitted;
+    private long rowsPerSecond;
+    private Long etaMillis;
+    private String failure;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,14 @@
+package io.github.Piotr7421.giftapi.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ImportRejectDto {
+
+    private long lineNumber;
+    private long byteOffset;
+    private String reason;
+    private String content;
+}
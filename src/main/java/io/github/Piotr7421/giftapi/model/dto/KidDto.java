@@ -1,5 +1,6 @@
 package io.github.Piotr7421.giftapi.model.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.experimental.SuperBuilder;
 
@@ -7,6 +8,7 @@ import java.time.LocalDate;
 
 @Data
 @SuperBuilder
+@AllArgsConstructor
 public class KidDto {
 
     private int id;
@@ -0,0 +1,17 @@
+package io.github.Piotr7421.giftapi.model.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+@Data
+@SuperBuilder
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class KidWithGiftsDto extends KidDto {
+
+    private List<GiftDto> gifts;
+}
@@ -0,0 +1,18 @@
+package io.github.Piotr7421.giftapi.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "jdbc.adaptive")
+@Getter
+@Setter
+public class AdaptiveBatchProperties {
+
+    private int minRowsPerStatement = 100;
+    private int maxRowsPerStatement = 5000;
+    private int initialRowsPerStatement = 500;
+    private int increaseStep = 100;
+    private double decreaseFactor = 0.5;
+    private long targetLatencyMillis = 200;
+}
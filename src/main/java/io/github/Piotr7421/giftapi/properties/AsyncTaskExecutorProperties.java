@@ -13,4 +13,7 @@ public class AsyncTaskExecutorProperties {
     private int maxPoolSize;
     private int queueCapacity;
     private String threadNamePrefix;
+    private int readerThreads = 1;
+    private int parserThreads = 1;
+    private int pipelineQueueCapacity = 4;
 }
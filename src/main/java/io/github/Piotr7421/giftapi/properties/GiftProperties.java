@@ -0,0 +1,16 @@
+package io.github.Piotr7421.giftapi.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import io.github.Piotr7421.giftapi.model.GiftConcurrencyMode;
+
+@ConfigurationProperties(prefix = "gift")
+@Getter
+@Setter
+public class GiftProperties {
+
+    private GiftConcurrencyMode concurrencyMode = GiftConcurrencyMode.CONDITIONAL_UPDATE;
+    private int maxAttempts = 5;
+    private long retryBackoffMillis = 2;
+}
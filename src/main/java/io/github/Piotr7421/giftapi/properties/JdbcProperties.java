@@ -3,6 +3,10 @@ package io.github.Piotr7421.giftapi.properties;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import io.github.Piotr7421.giftapi.importer.model.ImportEngine;
+import io.github.Piotr7421.giftapi.importer.model.ImportMode;
+
+import java.time.Duration;
 
 @ConfigurationProperties(prefix = "jdbc")
 @Getter
@@ -10,4 +14,10 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public class JdbcProperties {
 
     private int batchSize;
+    private int writerThreads = 1;
+    private int commitInterval = 1;
+    private ImportMode importMode = ImportMode.SEQUENTIAL;
+    private ImportEngine importEngine = ImportEngine.JDBC_BATCH;
+    private int exportFetchSize = 1000;
+    private Duration checkpointClaimTimeout = Duration.ofMinutes(5);
 }
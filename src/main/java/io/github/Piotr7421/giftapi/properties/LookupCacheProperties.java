@@ -0,0 +1,24 @@
+package io.github.Piotr7421.giftapi.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "lookup-cache")
+@Getter
+@Setter
+public class LookupCacheProperties {
+
+    private Spec kids = new Spec();
+    private Spec gifts = new Spec();
+
+    @Getter
+    @Setter
+    public static class Spec {
+
+        private long maximumSize = 10_000;
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+}
@@ -1,26 +1,32 @@
 package io.github.Piotr7421.giftapi.repository;
 
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import io.github.Piotr7421.giftapi.model.Gift;
+import io.github.Piotr7421.giftapi.model.dto.GiftDto;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface GiftRepository extends JpaRepository<Gift, Integer> {
 
-    Page<Gift> findAllByKidId(int kidId, Pageable pageable);
+    @Query(value = "SELECT new io.github.Piotr7421.giftapi.model.dto.GiftDto(g.id, g.name, g.price) FROM Gift g WHERE g.kid.id = :kidId",
+            countQuery = "SELECT count(g) FROM Gift g WHERE g.kid.id = :kidId")
+    Page<GiftDto> findAllDtosByKidId(int kidId, Pageable pageable);
+
+    @Query("SELECT new io.github.Piotr7421.giftapi.model.dto.GiftDto(g.id, g.name, g.price) " +
+            "FROM Gift g WHERE g.kid.id = :kidId AND g.id > :id ORDER BY g.id")
+    List<GiftDto> findDtosByKidIdAfter(int kidId, int id, Limit limit);
 
     Optional<Gift> findByIdAndKidId(int giftId, int kidId);
 
     @Lock(LockModeType.OPTIMISTIC)
     Optional<Gift> findWithLockingByIdAndKidId(int giftId, int kidId);
 
-    long countByKidId(int kidId);
-
-    void deleteAllByKidId(int id);
-
-    void deleteByIdAndKidId(int id, int kidId);
+    long deleteByIdAndKidId(int id, int kidId);
 }
@@ -0,0 +1,37 @@
+package io.github.Piotr7421.giftapi.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Hands out id blocks to the JDBC write paths with the same pooled-lo protocol the Hibernate table
+// generators on Kid and Gift use: the stored value is the first id of the next free block. The block
+// is reserved in its own transaction, so the sequence row is locked only for that update.
+@Repository
+public class IdSequenceRepository {
+
+    public static final String KID_SEQUENCE = "kid";
+    public static final String GIFT_SEQUENCE = "gift";
+
+    private static final String RESERVE_SQL = "UPDATE id_sequence SET next_val = next_val + ? WHERE sequence_name = ?";
+    private static final String NEXT_VALUE_SQL = "SELECT next_val FROM id_sequence WHERE sequence_name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public IdSequenceRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public long reserve(String sequenceName, int count) {
+        Long nextValue = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(RESERVE_SQL, count, sequenceName);
+            return jdbcTemplate.queryForObject(NEXT_VALUE_SQL, Long.class, sequenceName);
+        });
+        return nextValue - count;
+    }
+}
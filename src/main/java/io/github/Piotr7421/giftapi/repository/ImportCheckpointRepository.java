@@ -0,0 +1,41 @@
+package io.github.Piotr7421.giftapi.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import io.github.Piotr7421.giftapi.model.ImportCheckpoint;
+
+import java.time.LocalDateTime;
+
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpoint, String> {
+
+    // a checkpoint nobody holds, or whose holder stopped advancing it before staleBefore, goes to jobId
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE import_checkpoint SET job_id = :jobId, updated_at = :now " +
+            "WHERE checksum = :checksum AND (job_id IS NULL OR updated_at < :staleBefore)", nativeQuery = true)
+    int claim(String checksum, String jobId, LocalDateTime now, LocalDateTime staleBefore);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO import_checkpoint ( checksum, file_name, byte_offset, rows_committed, updated_at, job_id ) " +
+            "VALUES ( :checksum, :fileName, 0, 0, :now, :jobId )", nativeQuery = true)
+    void insertClaimed(String checksum, String fileName, String jobId, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE import_checkpoint SET byte_offset = :byteOffset, rows_committed = :rowsCommitted, updated_at = :now " +
+            "WHERE checksum = :checksum AND job_id = :jobId", nativeQuery = true)
+    int advance(String checksum, String jobId, long byteOffset, long rowsCommitted, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE import_checkpoint SET job_id = NULL WHERE checksum = :checksum AND job_id = :jobId", nativeQuery = true)
+    int release(String checksum, String jobId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM import_checkpoint WHERE checksum = :checksum AND job_id = :jobId", nativeQuery = true)
+    int deleteClaimed(String checksum, String jobId);
+}
@@ -0,0 +1,16 @@
+package io.github.Piotr7421.giftapi.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import io.github.Piotr7421.giftapi.model.ImportReject;
+import io.github.Piotr7421.giftapi.model.dto.ImportRejectDto;
+
+import java.util.List;
+
+public interface ImportRejectRepository extends JpaRepository<ImportReject, Long> {
+
+    @Query("SELECT new io.github.Piotr7421.giftapi.model.dto.ImportRejectDto(r.lineNumber, r.byteOffset, r.reason, r.content) " +
+            "FROM ImportReject r WHERE r.importId = :importId AND r.lineNumber > :lineNumber ORDER BY r.lineNumber")
+    List<ImportRejectDto> findDtosByImportIdAfter(String importId, long lineNumber, Limit limit);
+}
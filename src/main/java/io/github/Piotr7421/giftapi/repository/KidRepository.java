@@ -1,17 +1,67 @@
 package io.github.Piotr7421.giftapi.repository;
 
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 import io.github.Piotr7421.giftapi.model.Kid;
+import io.github.Piotr7421.giftapi.model.KidGiftQuota;
+import io.github.Piotr7421.giftapi.model.dto.KidDto;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface KidRepository extends JpaRepository<Kid, Integer> {
 
+    @Query(value = "SELECT new io.github.Piotr7421.giftapi.model.dto.KidDto(k.id, k.firstName, k.lastName, k.birthDate) FROM Kid k",
+            countQuery = "SELECT count(k) FROM Kid k")
+    Page<KidDto> findAllDtos(Pageable pageable);
+
+    @Query("SELECT new io.github.Piotr7421.giftapi.model.dto.KidDto(k.id, k.firstName, k.lastName, k.birthDate) " +
+            "FROM Kid k WHERE k.id > :id ORDER BY k.id")
+    List<KidDto> findDtosAfter(int id, Limit limit);
+
+    @Query(value = "SELECT k.id FROM Kid k", countQuery = "SELECT count(k) FROM Kid k")
+    Page<Integer> findAllIds(Pageable pageable);
+
+    @EntityGraph(attributePaths = "gifts")
+    List<Kid> findAllWithGiftsByIdIn(Collection<Integer> ids);
+
+    @EntityGraph(attributePaths = "gifts")
+    Optional<Kid> findWithGiftsById(int id);
+
+    // gifts go with their kid through ON DELETE CASCADE on fk_gift_kid
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Kid k WHERE k.id IN :ids")
+    int deleteAllByIdIn(Collection<Integer> ids);
+
     @Lock(LockModeType.OPTIMISTIC)
     Optional<Kid> findWithLockingById(int id);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<Kid> findWithPessimisticLockingById(int id);
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE kid SET gift_count = gift_count + 1 WHERE id = :id AND gift_count < :maxGifts", nativeQuery = true)
+    int incrementGiftCount(int id, int maxGifts);
+
+    @Query(value = "SELECT version, gift_count AS giftCount FROM kid WHERE id = :id", nativeQuery = true)
+    Optional<KidGiftQuota> findGiftQuotaById(int id);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE kid SET gift_count = gift_count + 1, version = version + 1 " +
+            "WHERE id = :id AND version = :version AND gift_count < :maxGifts", nativeQuery = true)
+    int compareAndIncrementGiftCount(int id, int version, int maxGifts);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE kid SET gift_count = gift_count - 1 WHERE id = :id AND gift_count > 0", nativeQuery = true)
+    int decrementGiftCount(int id);
 }
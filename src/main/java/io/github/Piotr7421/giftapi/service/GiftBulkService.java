@@ -0,0 +1,135 @@
+package io.github.Piotr7421.giftapi.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import io.github.Piotr7421.giftapi.exceptions.KidLockTimeoutException;
+import io.github.Piotr7421.giftapi.model.command.CreateBulkGiftsCommand;
+import io.github.Piotr7421.giftapi.model.command.CreateGiftCommand;
+import io.github.Piotr7421.giftapi.model.command.KidGiftCommand;
+import io.github.Piotr7421.giftapi.model.dto.BulkGiftResultDto;
+import io.github.Piotr7421.giftapi.model.dto.GiftDto;
+import io.github.Piotr7421.giftapi.repository.IdSequenceRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+@Service
+@RequiredArgsConstructor
+public class GiftBulkService {
+
+    // ORDER BY id makes every bulk call take the kid row locks in the same order, so two calls sharing kids
+    // wait for each other instead of deadlocking
+    private static final String LOCK_KIDS_SQL = "SELECT id, gift_count FROM kid WHERE id IN (:ids) ORDER BY id FOR UPDATE";
+    private static final String UPDATE_GIFT_COUNT_SQL = "UPDATE kid SET gift_count = ? WHERE id = ?";
+    private static final String INSERT_GIFT_SQL = "INSERT INTO gift ( id, name, price, kid_id, version ) VALUES ( ?, ?, ?, ?, 0)";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final IdSequenceRepository idSequenceRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // The id block is reserved on its own connection before the kid rows are locked, so a bulk call never
+    // waits for a second pooled connection while holding kid locks. Ids of rejected items stay unused.
+    public List<BulkGiftResultDto> saveAll(CreateBulkGiftsCommand command) {
+        List<KidGiftCommand> gifts = command.getGifts();
+        long firstId = idSequenceRepository.reserve(IdSequenceRepository.GIFT_SEQUENCE, gifts.size());
+        return transactionTemplate.execute(status -> lockAndSave(gifts, firstId));
+    }
+
+    private List<BulkGiftResultDto> lockAndSave(List<KidGiftCommand> gifts, long firstId) {
+        Map<Integer, Integer> giftCounts = lockKids(gifts);
+        Map<Integer, Integer> reservedCounts = new HashMap<>();
+        List<KidGiftCommand> accepted = new ArrayList<>();
+        BulkGiftResultDto[] results = new BulkGiftResultDto[gifts.size()];
+        List<Integer> acceptedPositions = new ArrayList<>();
+
+        // items are checked in request order, so earlier gifts for a kid win the remaining slots
+        for (int i = 0; i < gifts.size(); i++) {
+            int kidId = gifts.get(i).getKidId();
+            Integer giftCount = giftCounts.get(kidId);
+            if (giftCount == null) {
+                results[i] = rejected(kidId, HttpStatus.NOT_FOUND, GiftQuotaService.kidNotFoundMessage(kidId));
+            } else if (giftCount >= GiftQuotaService.MAX_GIFTS) {
+                results[i] = rejected(kidId, HttpStatus.BAD_REQUEST, GiftQuotaService.toManyGiftsMessage(kidId));
+            } else {
+                giftCounts.put(kidId, giftCount + 1);
+                reservedCounts.put(kidId, giftCount + 1);
+                accepted.add(gifts.get(i));
+                acceptedPositions.add(i);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            updateGiftCounts(reservedCounts);
+            insertGifts(accepted, firstId);
+            for (int i = 0; i < accepted.size(); i++) {
+                CreateGiftCommand gift = accepted.get(i).getGift();
+                results[acceptedPositions.get(i)] = BulkGiftResultDto.builder()
+                        .kidId(accepted.get(i).getKidId())
+                        .status(HttpStatus.CREATED.value())
+                        .gift(GiftDto.builder()
+                                .id((int) (firstId + i))
+                                .name(gift.getName())
+                                .price(gift.getPrice())
+                                .build())
+                        .build();
+            }
+        }
+        return List.of(results);
+    }
+
+    private Map<Integer, Integer> lockKids(List<KidGiftCommand> gifts) {
+        TreeSet<Integer> kidIds = new TreeSet<>();
+        gifts.forEach(gift -> kidIds.add(gift.getKidId()));
+        Map<Integer, Integer> giftCounts = new HashMap<>();
+        try {
+            namedParameterJdbcTemplate.query(LOCK_KIDS_SQL, Map.of("ids", kidIds),
+                    (RowCallbackHandler) rs -> giftCounts.put(rs.getInt(1), rs.getInt(2)));
+        } catch (PessimisticLockingFailureException e) {
+            throw new KidLockTimeoutException("Could not acquire lock on kid - operation timed out");
+        }
+        return giftCounts;
+    }
+
+    private void updateGiftCounts(Map<Integer, Integer> giftCounts) {
+        List<Object[]> arguments = new ArrayList<>(giftCounts.size());
+        giftCounts.forEach((kidId, giftCount) -> arguments.add(new Object[]{giftCount, kidId}));
+        namedParameterJdbcTemplate.getJdbcTemplate().batchUpdate(UPDATE_GIFT_COUNT_SQL, arguments);
+    }
+
+    private void insertGifts(List<KidGiftCommand> gifts, long firstId) {
+        namedParameterJdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_GIFT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                KidGiftCommand gift = gifts.get(i);
+                ps.setLong(1, firstId + i);
+                ps.setString(2, gift.getGift().getName());
+                ps.setDouble(3, gift.getGift().getPrice());
+                ps.setInt(4, gift.getKidId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return gifts.size();
+            }
+        });
+    }
+
+    private static BulkGiftResultDto rejected(int kidId, HttpStatus status, String message) {
+        return BulkGiftResultDto.builder()
+                .kidId(kidId)
+                .status(status.value())
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.Piotr7421.giftapi.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import io.github.Piotr7421.giftapi.exceptions.KidLockTimeoutException;
+import io.github.Piotr7421.giftapi.exceptions.KidNotFoundException;
+import io.github.Piotr7421.giftapi.exceptions.KidOptimisticLockingException;
+import io.github.Piotr7421.giftapi.exceptions.ToManyGiftsException;
+import io.github.Piotr7421.giftapi.model.GiftConcurrencyMode;
+import io.github.Piotr7421.giftapi.model.KidGiftQuota;
+import io.github.Piotr7421.giftapi.properties.GiftProperties;
+import io.github.Piotr7421.giftapi.repository.KidRepository;
+
+import java.text.MessageFormat;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+@Service
+public class GiftQuotaService {
+
+    static final int MAX_GIFTS = 3;
+
+    private final KidRepository kidRepository;
+    private final GiftProperties giftProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer lockWait;
+    private final Counter lockTimeouts;
+    private final Counter conflicts;
+    private final Counter retries;
+
+    public GiftQuotaService(KidRepository kidRepository, GiftProperties giftProperties, MeterRegistry meterRegistry,
+                            PlatformTransactionManager transactionManager) {
+        this.kidRepository = kidRepository;
+        this.giftProperties = giftProperties;
+        // read committed, so an optimistic retry sees the kid version committed by the caller it lost to
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.lockWait = Timer.builder("gift.quota.lock.wait")
+                .description("Time spent in the conditional gift count update, including waiting for the kid row lock")
+                .register(meterRegistry);
+        this.lockTimeouts = Counter.builder("gift.quota.lock.timeouts")
+                .description("Gift reservations that timed out waiting for the kid row lock")
+                .register(meterRegistry);
+        this.conflicts = Counter.builder("gift.quota.conflicts")
+                .description("Optimistic gift reservations that lost the version compare-and-increment")
+                .register(meterRegistry);
+        this.retries = Counter.builder("gift.quota.retries")
+                .description("Optimistic gift reservations retried after a conflict")
+                .register(meterRegistry);
+    }
+
+    // The write runs in the transaction of the reservation, so both commit together. Every attempt is its
+    // own transaction, no connection is held while a losing attempt backs off.
+    public <T> T reserve(int kidId, Supplier<T> write) {
+        if (giftProperties.getConcurrencyMode() == GiftConcurrencyMode.OPTIMISTIC) {
+            return reserveOptimistically(kidId, write);
+        }
+        return transactionTemplate.execute(status -> {
+            reserveWithConditionalUpdate(kidId);
+            return write.get();
+        });
+    }
+
+    public void release(int kidId) {
+        kidRepository.decrementGiftCount(kidId);
+    }
+
+    // The limit check and the reservation are one conditional UPDATE, so the kid row is locked only
+    // for that statement instead of a SELECT ... FOR UPDATE followed by a count
+    private void reserveWithConditionalUpdate(int kidId) {
+        int reserved;
+        try {
+            reserved = lockWait.record(() -> kidRepository.incrementGiftCount(kidId, MAX_GIFTS));
+        } catch (PessimisticLockingFailureException e) {
+            lockTimeouts.increment();
+            throw new KidLockTimeoutException("Could not acquire lock on kid - operation timed out");
+        }
+        if (reserved == 0) {
+            if (!kidRepository.existsById(kidId)) {
+                throw kidNotFound(kidId);
+            }
+            throw toManyGifts(kidId);
+        }
+    }
+
+    // Compare-and-increment on the kid version: no row lock is waited for, a caller that loses the race
+    // reads the kid again and retries after a jittered backoff
+    private <T> T reserveOptimistically(int kidId, Supplier<T> write) {
+        int maxAttempts = Math.max(1, giftProperties.getMaxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            Optional<T> written = transactionTemplate.execute(status -> compareAndIncrement(kidId)
+                    ? Optional.of(write.get())
+                    : Optional.empty());
+            if (written.isPresent()) {
+                return written.get();
+            }
+            conflicts.increment();
+            if (attempt == maxAttempts) {
+                throw new KidOptimisticLockingException(MessageFormat
+                        .format("Could not reserve gift for kid with id={0} after {1} attempts", kidId, maxAttempts));
+            }
+            retries.increment();
+            backOff(kidId, attempt);
+        }
+    }
+
+    private boolean compareAndIncrement(int kidId) {
+        KidGiftQuota quota = kidRepository.findGiftQuotaById(kidId)
+                .orElseThrow(() -> kidNotFound(kidId));
+        if (quota.getGiftCount() >= MAX_GIFTS) {
+            throw toManyGifts(kidId);
+        }
+        return kidRepository.compareAndIncrementGiftCount(kidId, quota.getVersion(), MAX_GIFTS) == 1;
+    }
+
+    private void backOff(int kidId, int attempt) {
+        long maxBackoff = giftProperties.getRetryBackoffMillis() << Math.min(attempt - 1, 10);
+        if (maxBackoff <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxBackoff + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KidOptimisticLockingException(MessageFormat
+                    .format("Interrupted while reserving gift for kid with id={0}", kidId));
+        }
+    }
+
+    static String kidNotFoundMessage(int kidId) {
+        return MessageFormat.format("Kid with id={0} not found", kidId);
+    }
+
+    static String toManyGiftsMessage(int kidId) {
+        return MessageFormat.format("To many gifts for kid with id={0}", kidId);
+    }
+
+    private static KidNotFoundException kidNotFound(int kidId) {
+        return new KidNotFoundException(kidNotFoundMessage(kidId));
+    }
+
+    private static ToManyGiftsException toManyGifts(int kidId) {
+        return new ToManyGiftsException(toManyGiftsMessage(kidId));
+    }
+}
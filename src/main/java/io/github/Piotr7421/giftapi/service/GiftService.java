@@ -1,28 +1,31 @@
 package io.github.Piotr7421.giftapi.service;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.OptimisticLockingFailureException;
-import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import io.github.Piotr7421.giftapi.cache.GiftCache;
+import io.github.Piotr7421.giftapi.cache.GiftKey;
+import io.github.Piotr7421.giftapi.cache.Versioned;
 import io.github.Piotr7421.giftapi.exceptions.GiftNotFoundException;
 import io.github.Piotr7421.giftapi.exceptions.GiftOptimisticLockingException;
-import io.github.Piotr7421.giftapi.exceptions.KidLockTimeoutException;
-import io.github.Piotr7421.giftapi.exceptions.KidNotFoundException;
-import io.github.Piotr7421.giftapi.exceptions.ToManyGiftsException;
 import io.github.Piotr7421.giftapi.mapper.GiftMapper;
 import io.github.Piotr7421.giftapi.model.Gift;
-import io.github.Piotr7421.giftapi.model.Kid;
 import io.github.Piotr7421.giftapi.model.command.CreateGiftCommand;
 import io.github.Piotr7421.giftapi.model.command.UpdateGiftCommand;
+import io.github.Piotr7421.giftapi.model.dto.CursorPageDto;
 import io.github.Piotr7421.giftapi.model.dto.GiftDto;
 import io.github.Piotr7421.giftapi.repository.GiftRepository;
 import io.github.Piotr7421.giftapi.repository.KidRepository;
 
 import java.text.MessageFormat;
+import java.util.function.Function;
 
+@Timed(value = "service.calls", histogram = true)
 @Service
 @RequiredArgsConstructor
 public class GiftService {
@@ -30,37 +33,33 @@ public class GiftService {
     public final GiftRepository giftRepository;
     public final KidRepository kidRepository;
     public final GiftMapper giftMapper;
+    public final GiftQuotaService giftQuotaService;
+    public final GiftCache giftCache;
 
     public Page<GiftDto> findAll(int kidId, Pageable pageable) {
-        return giftRepository.findAllByKidId(kidId, pageable)
-                .map(giftMapper::mapToDto);
+        return giftRepository.findAllDtosByKidId(kidId, pageable);
+    }
+
+    public CursorPageDto<GiftDto> findAll(int kidId, String after, int limit) {
+        int pageSize = KeysetCursor.limit(limit);
+        return KeysetCursor.page(
+                giftRepository.findDtosByKidIdAfter(kidId, KeysetCursor.decode(after), Limit.of(pageSize + 1)),
+                pageSize, GiftDto::getId, Function.identity());
     }
 
     public GiftDto findById(int kidId, int giftId) {
-        return giftRepository.findByIdAndKidId(giftId, kidId)
-                .map(giftMapper::mapToDto)
+        return giftCache.get(new GiftKey(kidId, giftId), key -> giftRepository.findByIdAndKidId(giftId, kidId)
+                        .map(gift -> new Versioned<>(gift.getVersion(), giftMapper.mapToDto(gift))))
                 .orElseThrow(() -> new GiftNotFoundException(MessageFormat
                         .format("Gift with id={0} and kidId={1} not found", giftId, kidId)));
     }
 
-    @Transactional
     public GiftDto save(int kidId, CreateGiftCommand command) {
-        Kid kid;
-        try {
-            kid = kidRepository.findWithPessimisticLockingById(kidId)
-                    .orElseThrow(() -> new KidNotFoundException(MessageFormat
-                            .format("Kid with id={0} not found", kidId)));
-        } catch (PessimisticLockingFailureException e) {
-            throw new KidLockTimeoutException("Could not acquire lock on kid - operation timed out");
-        }
-        long currentGiftsCount = giftRepository.countByKidId(kidId);
-        if (currentGiftsCount > 2) {
-            throw new ToManyGiftsException(MessageFormat
-                    .format("To many gifts for kid with id={0}", kidId));
-        }
-        Gift toSave = giftMapper.mapFromCommand(command);
-        toSave.setKid(kid);
-        return giftMapper.mapToDto(giftRepository.save(toSave));
+        return giftQuotaService.reserve(kidId, () -> {
+            Gift toSave = giftMapper.mapFromCommand(command);
+            toSave.setKid(kidRepository.getReferenceById(kidId));
+            return giftMapper.mapToDto(giftRepository.save(toSave));
+        });
     }
 
     @Transactional
@@ -70,7 +69,10 @@ public class GiftService {
                         .format("Gift with id={0} and kidId={1} not found", giftId, kidId)));
         giftMapper.updateFromCommand(gift, command);
         try {
-            return giftMapper.mapToDto(giftRepository.save(gift));
+            Gift updated = giftRepository.save(gift);
+            GiftDto dto = giftMapper.mapToDto(updated);
+            giftCache.putAfterCommit(new GiftKey(kidId, giftId), () -> new Versioned<>(updated.getVersion(), dto));
+            return dto;
         } catch (OptimisticLockingFailureException e) {
             throw new GiftOptimisticLockingException(MessageFormat
                     .format("Gift optimistic locking exception while updating gift with id={0}", giftId));
@@ -79,6 +81,9 @@ public class GiftService {
 
     @Transactional
     public void delete(int kidId, int id) {
-        giftRepository.deleteByIdAndKidId(id, kidId);
+        if (giftRepository.deleteByIdAndKidId(id, kidId) > 0) {
+            giftQuotaService.release(kidId);
+            giftCache.evictAfterCommit(new GiftKey(kidId, id));
+        }
     }
 }
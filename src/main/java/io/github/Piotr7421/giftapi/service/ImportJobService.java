@@ -0,0 +1,82 @@
+package io.github.Piotr7421.giftapi.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import io.github.Piotr7421.giftapi.exceptions.ImportJobNotFoundException;
+import io.github.Piotr7421.giftapi.importer.model.ImportJob;
+import io.github.Piotr7421.giftapi.model.dto.CursorPageDto;
+import io.github.Piotr7421.giftapi.model.dto.ImportJobDto;
+import io.github.Piotr7421.giftapi.model.dto.ImportRejectDto;
+import io.github.Piotr7421.giftapi.repository.ImportRejectRepository;
+
+import java.text.MessageFormat;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportJobService {
+
+    private static final long FINISHED_JOB_RETENTION_HOURS = 1;
+
+    private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final ImportRejectRepository importRejectRepository;
+
+    public ImportJob create(String fileName, long totalBytes) {
+        LocalDateTime expiry = LocalDateTime.now().minusHours(FINISHED_JOB_RETENTION_HOURS);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(expiry));
+        ImportJob job = new ImportJob(fileName, totalBytes);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    public ImportJobDto findById(UUID jobId) {
+        return mapToDto(getJob(jobId));
+    }
+
+    // rejects are kept in the database, so they can still be read after the job itself has expired
+    public CursorPageDto<ImportRejectDto> findRejects(UUID jobId, String after, int limit) {
+        int pageSize = KeysetCursor.limit(limit);
+        return KeysetCursor.page(
+                importRejectRepository.findDtosByImportIdAfter(jobId.toString(), KeysetCursor.decodeLong(after), Limit.of(pageSize + 1)),
+                pageSize, ImportRejectDto::getLineNumber, Function.identity());
+    }
+
+    public ImportJobDto cancel(UUID jobId) {
+        ImportJob job = getJob(jobId);
+        job.cancel();
+        log.info("Cancellation requested for import job {}", jobId);
+        return mapToDto(job);
+    }
+
+    public ImportJobDto mapToDto(ImportJob job) {
+        return ImportJobDto.builder()
+                .id(job.getId())
+                .fileName(job.getFileName())
+                .status(job.getStatus().name())
+                .rowsParsed(job.getRowsParsed().sum())
+                .rowsRejected(job.getRowsRejected().sum())
+                .rowsInserted(job.getRowsInserted().sum())
+                .batchesCommitted(job.getBatchesCommitted().sum())
+                .rowsPerSecond(job.getRowsPerSecond())
+                .etaMillis(job.getEtaMillis())
+                .failure(job.getFailure())
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+    private ImportJob getJob(UUID jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ImportJobNotFoundException(MessageFormat.format("Import job with id={0} not found", jobId));
+        }
+        return job;
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.Piotr7421.giftapi.service;
+
+import io.github.Piotr7421.giftapi.exceptions.InvalidCursorException;
+import io.github.Piotr7421.giftapi.model.dto.CursorPageDto;
+
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+// Seek pagination on the primary key: a page is "id > last seen id ORDER BY id LIMIT n", so it costs the
+// same at page 10,000 as at page 1 and needs no count query. The token only wraps the id, but clients must
+// treat it as opaque, so the encoding can change without breaking them.
+final class KeysetCursor {
+
+    static final int MAX_LIMIT = 1000;
+
+    private static final String PREFIX = "id:";
+
+    private KeysetCursor() {
+    }
+
+    static int limit(int requested) {
+        return Math.max(1, Math.min(requested, MAX_LIMIT));
+    }
+
+    static int decode(String token) {
+        long id = decodeLong(token);
+        if (id < Integer.MIN_VALUE || id > Integer.MAX_VALUE) {
+            throw invalid(token);
+        }
+        return (int) id;
+    }
+
+    static long decodeLong(String token) {
+        if (token == null || token.isEmpty()) {
+            return 0;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (value.startsWith(PREFIX)) {
+                return Long.parseLong(value.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below together with a token that decodes to something else
+        }
+        throw invalid(token);
+    }
+
+    static String encode(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // rows are fetched with limit + 1, so the extra row tells whether there is a next page
+    static <E, D> CursorPageDto<D> page(List<E> rows, int limit, ToLongFunction<E> id, Function<E, D> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<E> content = hasNext ? rows.subList(0, limit) : rows;
+        String next = hasNext ? encode(id.applyAsLong(content.get(limit - 1))) : null;
+        return new CursorPageDto<>(content.stream().map(mapper).toList(), next);
+    }
+
+    private static InvalidCursorException invalid(String token) {
+        return new InvalidCursorException(MessageFormat.format("Cursor {0} is not valid", token));
+    }
+}
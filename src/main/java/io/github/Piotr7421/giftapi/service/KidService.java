@@ -1,39 +1,78 @@
 package io.github.Piotr7421.giftapi.service;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import io.github.Piotr7421.giftapi.cache.GiftCache;
+import io.github.Piotr7421.giftapi.cache.KidCache;
+import io.github.Piotr7421.giftapi.cache.Versioned;
 import io.github.Piotr7421.giftapi.exceptions.KidNotFoundException;
 import io.github.Piotr7421.giftapi.exceptions.KidOptimisticLockingException;
 import io.github.Piotr7421.giftapi.mapper.KidMapper;
 import io.github.Piotr7421.giftapi.model.Kid;
 import io.github.Piotr7421.giftapi.model.command.CreateKidCommand;
 import io.github.Piotr7421.giftapi.model.command.UpdateKidCommand;
+import io.github.Piotr7421.giftapi.model.dto.CursorPageDto;
 import io.github.Piotr7421.giftapi.model.dto.KidDto;
-import io.github.Piotr7421.giftapi.repository.GiftRepository;
+import io.github.Piotr7421.giftapi.model.dto.KidWithGiftsDto;
 import io.github.Piotr7421.giftapi.repository.KidRepository;
 
 import java.text.MessageFormat;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+@Timed(value = "service.calls", histogram = true)
 @Service
 @RequiredArgsConstructor
 public class KidService {
 
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
     private final KidRepository kidRepository;
     private final KidMapper kidMapper;
-    private final GiftRepository giftRepository;
+    private final KidCache kidCache;
+    private final GiftCache giftCache;
 
     public Page<KidDto> findAll(Pageable pageable) {
-        return kidRepository.findAll(pageable)
-                .map(kidMapper::mapToDto);
+        return kidRepository.findAllDtos(pageable);
+    }
+
+    // the page is chosen on ids alone, so the gifts of the whole page come in one join instead of a query per kid
+    public Page<KidWithGiftsDto> findAllWithGifts(Pageable pageable) {
+        Page<Integer> ids = kidRepository.findAllIds(pageable);
+        if (ids.isEmpty()) {
+            return ids.map(id -> null);
+        }
+        Map<Integer, Kid> kids = kidRepository.findAllWithGiftsByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(Kid::getId, Function.identity()));
+        return ids.map(id -> kidMapper.mapToDtoWithGifts(kids.get(id)));
+    }
+
+    public KidWithGiftsDto findWithGiftsById(int id) {
+        return kidRepository.findWithGiftsById(id)
+                .map(kidMapper::mapToDtoWithGifts)
+                .orElseThrow(() -> new KidNotFoundException(MessageFormat
+                        .format("Kid with id={0} not found", id)));
+    }
+
+    public CursorPageDto<KidDto> findAll(String after, int limit) {
+        int pageSize = KeysetCursor.limit(limit);
+        return KeysetCursor.page(
+                kidRepository.findDtosAfter(KeysetCursor.decode(after), Limit.of(pageSize + 1)),
+                pageSize, KidDto::getId, Function.identity());
     }
 
     public KidDto findById(int id) {
-        return kidRepository.findById(id)
-                .map(kidMapper::mapToDto)
+        return kidCache.get(id, key -> kidRepository.findById(key)
+                        .map(kid -> new Versioned<>(kid.getVersion(), kidMapper.mapToDto(kid))))
                 .orElseThrow(() -> new KidNotFoundException(MessageFormat
                         .format("Kid with id={0} not found", id)));
     }
@@ -50,7 +89,10 @@ public class KidService {
                 .format("Kid with id={0} not found", id)));
         kidMapper.updateFromCommand(kidToUpdate, command);
         try {
-            return kidMapper.mapToDto(kidRepository.save(kidToUpdate));
+            Kid updated = kidRepository.save(kidToUpdate);
+            KidDto dto = kidMapper.mapToDto(updated);
+            kidCache.putAfterCommit(id, () -> new Versioned<>(updated.getVersion(), dto));
+            return dto;
         } catch (OptimisticLockingFailureException e) {
             throw new KidOptimisticLockingException(MessageFormat
                     .format("Kid optimistic locking exception while updating kid with id={0}.", id));
@@ -59,7 +101,17 @@ public class KidService {
 
     @Transactional
     public void delete(int id) {
-        giftRepository.deleteAllByKidId(id);
-        kidRepository.deleteById(id);
+        deleteAll(List.of(id));
+    }
+
+    // one set-based statement per chunk, all in one transaction; unknown ids are ignored like in delete
+    @Transactional
+    public void deleteAll(Collection<Integer> ids) {
+        List<Integer> distinctIds = ids.stream().distinct().toList();
+        for (int from = 0; from < distinctIds.size(); from += DELETE_CHUNK_SIZE) {
+            kidRepository.deleteAllByIdIn(distinctIds.subList(from, Math.min(from + DELETE_CHUNK_SIZE, distinctIds.size())));
+        }
+        kidCache.evictAllAfterCommit(distinctIds);
+        giftCache.evictAllOfKidsAfterCommit(distinctIds);
     }
 }
@@ -0,0 +1,106 @@
+package io.github.Piotr7421.giftapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import io.github.Piotr7421.giftapi.exporter.CsvKidExportWriter;
+import io.github.Piotr7421.giftapi.exporter.KidExportWriter;
+import io.github.Piotr7421.giftapi.exporter.NdjsonKidExportWriter;
+import io.github.Piotr7421.giftapi.exporter.model.KidExportFormat;
+import io.github.Piotr7421.giftapi.properties.JdbcProperties;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Service
+@RequiredArgsConstructor
+public class KidsExportService {
+
+    private static final String KIDS_SQL = "SELECT id, first_name, last_name, birth_date, kid_type, pants_length, skirt_color " +
+            "FROM kid ORDER BY id";
+    private static final String KIDS_WITH_GIFTS_SQL = "SELECT k.id, k.first_name, k.last_name, k.birth_date, " +
+            "k.kid_type, k.pants_length, k.skirt_color, " +
+            "g.id AS gift_id, g.name AS gift_name, g.price AS gift_price " +
+            "FROM kid k LEFT JOIN gift g ON g.kid_id = k.id ORDER BY k.id, g.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final JdbcProperties jdbcProperties;
+
+    public void export(OutputStream outputStream, KidExportFormat format, boolean includeGifts) throws IOException {
+        KidExportWriter writer = switch (format) {
+            case NDJSON -> new NdjsonKidExportWriter(objectMapper, outputStream, includeGifts);
+            case CSV -> new CsvKidExportWriter(outputStream, includeGifts);
+        };
+        ExportRowHandler rowHandler = new ExportRowHandler(writer, includeGifts);
+        try {
+            jdbcTemplate.query(forwardOnly(includeGifts ? KIDS_WITH_GIFTS_SQL : KIDS_SQL), rowHandler);
+            rowHandler.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // a forward-only, read-only cursor with a fetch size streams the rows; with MySQL Connector/J this
+    // needs useCursorFetch=true, otherwise the driver reads the whole result into memory first
+    private PreparedStatementCreator forwardOnly(String sql) {
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(jdbcProperties.getExportFetchSize());
+            return statement;
+        };
+    }
+
+    // the join returns one row per gift and rows of one kid are adjacent, so a kid ends when the id changes
+    private static class ExportRowHandler implements RowCallbackHandler {
+
+        private final KidExportWriter writer;
+        private final boolean includeGifts;
+        private int currentKidId;
+        private boolean kidOpen;
+
+        private ExportRowHandler(KidExportWriter writer, boolean includeGifts) {
+            this.writer = writer;
+            this.includeGifts = includeGifts;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                int kidId = rs.getInt("id");
+                if (!kidOpen || kidId != currentKidId) {
+                    if (kidOpen) {
+                        writer.endKid();
+                    }
+                    writer.startKid(kidId, rs.getString("first_name"), rs.getString("last_name"),
+                            rs.getDate("birth_date").toLocalDate(), rs.getString("kid_type"),
+                            rs.getObject("pants_length", Integer.class), rs.getString("skirt_color"));
+                    currentKidId = kidId;
+                    kidOpen = true;
+                }
+                if (includeGifts) {
+                    int giftId = rs.getInt("gift_id");
+                    if (!rs.wasNull()) {
+                        writer.gift(giftId, rs.getString("gift_name"), rs.getDouble("gift_price"));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void finish() throws IOException {
+            if (kidOpen) {
+                writer.endKid();
+            }
+            writer.finish();
+        }
+    }
+}
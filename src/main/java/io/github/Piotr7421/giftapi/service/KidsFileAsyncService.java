@@ -1,26 +1,47 @@
 package io.github.Piotr7421.giftapi.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import io.github.Piotr7421.giftapi.exceptions.LoadingIOException;
+import io.github.Piotr7421.giftapi.exceptions.ImportCancelledException;
+import io.github.Piotr7421.giftapi.importer.model.ImportJob;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class KidsFileAsyncService {
     private final KidsFileImportService kidsFileImportService;
 
     @Async("asyncTaskExecutor")
-    public void asyncProcessKidsFile(Path tmpFile, String originalFilename) {
+    public void asyncProcessKidsFile(Path tmpFile, ImportJob job) {
+        try {
+            // a job cancelled while still queued is never started
+            if (job.start()) {
+                kidsFileImportService.importKidsFromFile(tmpFile, job);
+                job.complete();
+            }
+        } catch (ImportCancelledException ex) {
+            job.markCancelled();
+        } catch (IOException ex) {
+            job.fail("Could not process inserts from file: " + job.getFileName());
+        } catch (RuntimeException ex) {
+            job.fail(ex.getMessage());
+        } finally {
+            deleteTmpFile(tmpFile);
+        }
+        log.info("Import job {} finished with status {}", job.getId(), job.getStatus());
+    }
+
+    private void deleteTmpFile(Path tmpFile) {
         try {
-            kidsFileImportService.importKidsFromFile(tmpFile);
             Files.deleteIfExists(tmpFile);
         } catch (IOException ex) {
-            throw new LoadingIOException("Could not process inserts from file: " + originalFilename);
+            log.warn("Could not delete temporary file {}", tmpFile, ex);
         }
     }
 }
@@ -1,67 +1,121 @@
 package io.github.Piotr7421.giftapi.service;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import io.github.Piotr7421.giftapi.exceptions.ImportAlreadyRunningException;
+import io.github.Piotr7421.giftapi.exceptions.ImportCancelledException;
 import io.github.Piotr7421.giftapi.exceptions.InsertSqlException;
+import io.github.Piotr7421.giftapi.exceptions.LoadingIOException;
+import io.github.Piotr7421.giftapi.importer.ChunkedKidsImporter;
+import io.github.Piotr7421.giftapi.importer.KidBatchWriter;
+import io.github.Piotr7421.giftapi.importer.KidCsvParser;
+import io.github.Piotr7421.giftapi.importer.KidsImportPipeline;
+import io.github.Piotr7421.giftapi.importer.model.FilePartition;
+import io.github.Piotr7421.giftapi.importer.model.ImportJob;
+import io.github.Piotr7421.giftapi.importer.model.ImportProgress;
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+import io.github.Piotr7421.giftapi.model.dto.ImportJobDto;
 import io.github.Piotr7421.giftapi.properties.JdbcProperties;
+import io.github.Piotr7421.giftapi.strategy.KidBatchCreationStrategy;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
-import java.sql.PreparedStatement;
+import java.nio.file.StandardOpenOption;
 import java.text.MessageFormat;
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class KidsFileImportService {
 
-    private final JdbcTemplate jdbcTemplate;
     private final JdbcProperties jdbcProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final KidsImportPipeline kidsImportPipeline;
+    private final ChunkedKidsImporter chunkedKidsImporter;
+    private final KidBatchWriter kidBatchWriter;
+    private final ImportJobService importJobService;
+    private final List<KidBatchCreationStrategy> kidBatchCreationStrategies;
 
-    @Transactional
-    public void importKidsFromFile(Path csvPath) throws IOException {
-        try (BufferedReader bufferedReader = Files.newBufferedReader(csvPath)) {
-            String line;
+    public void importKidsFromFile(Path csvPath, ImportProgress progress) throws IOException {
+        try {
+            switch (jdbcProperties.getImportMode()) {
+                case PIPELINED -> kidsImportPipeline.importKids(csvPath, progress);
+                case CHUNKED -> chunkedKidsImporter.importKids(csvPath, progress);
+                case SEQUENTIAL -> transactionTemplate.executeWithoutResult(status -> importSequentially(csvPath, progress));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (ImportCancelledException | ImportAlreadyRunningException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InsertSqlException(MessageFormat.format("Failed to insert data from file {0}", csvPath.getFileName()));
+        }
+    }
+
+    public ImportJobDto importKidsFromStream(InputStream csvStream, long contentLength) {
+        ImportJob job = importJobService.create("request body", contentLength);
+        job.start();
+        try {
+            kidsImportPipeline.importKids(csvStream, job);
+            job.complete();
+            return importJobService.mapToDto(job);
+        } catch (ImportCancelledException e) {
+            job.markCancelled();
+            return importJobService.mapToDto(job);
+        } catch (IOException e) {
+            job.fail(e.getMessage());
+            throw new LoadingIOException("Could not process inserts from request body");
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage());
+            throw new InsertSqlException("Failed to insert data from request body");
+        }
+    }
+
+    private void importSequentially(Path csvPath, ImportProgress progress) {
+        try (FileChannel channel = FileChannel.open(csvPath, StandardOpenOption.READ)) {
             int counter = 0;
             long startTime = System.currentTimeMillis();
-            Collection<String> lines = new ArrayList<>();
-            // Skip the first line (header)
-            bufferedReader.readLine();
-            while ((line = bufferedReader.readLine()) != null) {
-                lines.add(line);
-                counter++;
-                if (counter % jdbcProperties.getBatchSize() == 0) {
-                    batchInsert(lines);
-                    log.info("{} lines in {}ms", counter, System.currentTimeMillis() - startTime);
-                    lines.clear();
+            KidCsvParser parser = new KidCsvParser(kidBatchCreationStrategies);
+            KidBatch batch = new KidBatch(jdbcProperties.getBatchSize());
+            long line = KidCsvParser.FIRST_DATA_LINE;
+            // a single partition unless the file is too big for one memory mapped buffer
+            for (FilePartition partition : FilePartition.split(csvPath, 1)) {
+                parser.reset(channel.map(FileChannel.MapMode.READ_ONLY, partition.start(), partition.length()),
+                        partition.start(), line);
+                while (parser.hasRemaining()) {
+                    long startOffset = parser.offset();
+                    progress.rowsParsed(parser.parseInto(batch), parser.offset() - startOffset);
+                    if (batch.isFull()) {
+                        writeBatch(batch, progress);
+                        counter += batch.size();
+                        batch.clear();
+                        log.info("{} lines in {}ms", counter, System.currentTimeMillis() - startTime);
+                    }
                 }
+                line = parser.line();
             }
-            if (!lines.isEmpty()) {
-                batchInsert(lines);
-                log.info("Remaining {} lines in {}ms", lines.size(), System.currentTimeMillis() - startTime);
+            if (!batch.isEmpty()) {
+                writeBatch(batch, progress);
+                log.info("Remaining {} lines in {}ms", batch.size(), System.currentTimeMillis() - startTime);
             }
-        } catch (RuntimeException e) {
-            throw new InsertSqlException(MessageFormat.format("Failed to insert data from file {0}", csvPath.getFileName()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
-    private void batchInsert(final Collection<String> lines) {
-        jdbcTemplate.batchUpdate("INSERT INTO kid ( first_name, last_name, birth_date, version, kid_type ) " +
-                        "VALUES ( ?, ?, ?, 0, 'Kid')",
-                lines,
-                jdbcProperties.getBatchSize(),
-                (PreparedStatement ps, String line) -> {
-                    String[] params = line.split(",");
-                    ps.setString(1, params[0]);
-                    ps.setString(2, params[1]);
-                    ps.setString(3, params[2]);
-                });
+    private void writeBatch(KidBatch batch, ImportProgress progress) {
+        // the whole file is imported in one transaction, so cancelling rolls back every batch written so far
+        if (progress.isCancelled()) {
+            throw new ImportCancelledException("Import cancelled");
+        }
+        progress.rowsRejected(batch.getRejects().size());
+        kidBatchWriter.write(batch, progress.getId());
+        progress.batchCommitted(batch.size());
     }
 }
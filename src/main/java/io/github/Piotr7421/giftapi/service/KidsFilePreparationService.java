@@ -1,13 +1,18 @@
 package io.github.Piotr7421.giftapi.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import io.github.Piotr7421.giftapi.exceptions.ImportQueueFullException;
 import io.github.Piotr7421.giftapi.exceptions.LoadingIOException;
+import io.github.Piotr7421.giftapi.importer.model.ImportJob;
+import io.github.Piotr7421.giftapi.model.dto.ImportJobDto;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.text.MessageFormat;
 import java.util.UUID;
 
 @Service
@@ -15,6 +20,7 @@ import java.util.UUID;
 public class KidsFilePreparationService {
 
     private final KidsFileAsyncService kidsFileAsyncService;
+    private final ImportJobService importJobService;
 
     private static String getExtension(String filename) {
         if (filename == null || !filename.contains(".")) {
@@ -23,13 +29,23 @@ public class KidsFilePreparationService {
         return filename.substring(filename.lastIndexOf('.'));
     }
 
-    public void processKidsFile(MultipartFile multipartFile) {
+    public ImportJobDto processKidsFile(MultipartFile multipartFile) {
         String originalFilename = multipartFile.getOriginalFilename();
         String extension = getExtension(originalFilename);
         try {
             Path tmp = Files.createTempFile("kids-" + UUID.randomUUID(), extension);
             multipartFile.transferTo(tmp);
-            kidsFileAsyncService.asyncProcessKidsFile(tmp, multipartFile.getOriginalFilename());
+            ImportJob job = importJobService.create(originalFilename, multipartFile.getSize());
+            try {
+                kidsFileAsyncService.asyncProcessKidsFile(tmp, job);
+            } catch (TaskRejectedException ex) {
+                // the job never reaches a worker, so it is finished and its file removed here
+                job.fail("Import queue is full");
+                Files.deleteIfExists(tmp);
+                throw new ImportQueueFullException(MessageFormat
+                        .format("Import queue is full, could not import file: {0}", originalFilename));
+            }
+            return importJobService.mapToDto(job);
         } catch (IOException ex) {
             throw new LoadingIOException("Could not process inserts from file: "
                     + multipartFile.getOriginalFilename());
@@ -2,23 +2,59 @@ package io.github.Piotr7421.giftapi.strategy;
 
 import org.springframework.stereotype.Component;
 import io.github.Piotr7421.giftapi.strategy.model.Boy;
+import io.github.Piotr7421.giftapi.strategy.model.KidField;
+import io.github.Piotr7421.giftapi.strategy.model.KidSubtypeColumn;
 import io.github.Piotr7421.giftapi.strategy.model.command.CreateKidStrategyCommand;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.Map;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
 
 @Component("BOY")
-public class BoyCreationStrategy implements KidCreationStrategy {
+public class BoyCreationStrategy implements KidBatchCreationStrategy {
+
+    private final KidTypeDescriptor<Boy> descriptor = new KidTypeDescriptor<>("BOY", Boy::new, List.of(
+            new KidField<>("pantsLength", (boy, value) -> boy.setPantsLength(parseSubtypeValue(value)))));
 
     @Override
     public Boy create(CreateKidStrategyCommand strategyCommand) {
-        Map<String, String> params = strategyCommand.getParams();
-        return Boy.builder()
-                .firstName(params.get("firstName"))
-                .lastName(params.get("lastName"))
-                .birthDate(LocalDate.parse(params.get("birthDate"), DateTimeFormatter.ofPattern("yyyy-MM-dd")))
-                .pantsLength(Integer.parseInt(params.get("pantsLength")))
-                .build();
+        return descriptor.create(strategyCommand.getParams());
+    }
+
+    @Override
+    public KidTypeDescriptor<Boy> descriptor() {
+        return descriptor;
+    }
+
+    @Override
+    public String kidType() {
+        return descriptor.getType();
+    }
+
+    @Override
+    public KidSubtypeColumn subtypeColumn() {
+        return KidSubtypeColumn.PANTS_LENGTH;
+    }
+
+    @Override
+    public Integer parseSubtypeValue(String value) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("pants length is empty");
+        }
+        int pantsLength;
+        try {
+            pantsLength = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("pants length is not a number");
+        }
+        if (pantsLength <= 0) {
+            throw new IllegalArgumentException("pants length is not a positive number");
+        }
+        return pantsLength;
+    }
+
+    @Override
+    public void bindSubtypeValue(PreparedStatement ps, int parameterIndex, Object value) throws SQLException {
+        ps.setInt(parameterIndex, (Integer) value);
     }
 }
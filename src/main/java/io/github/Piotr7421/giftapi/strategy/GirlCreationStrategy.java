@@ -2,23 +2,56 @@ package io.github.Piotr7421.giftapi.strategy;
 
 import org.springframework.stereotype.Component;
 import io.github.Piotr7421.giftapi.strategy.model.Girl;
+import io.github.Piotr7421.giftapi.strategy.model.KidField;
+import io.github.Piotr7421.giftapi.strategy.model.KidSubtypeColumn;
 import io.github.Piotr7421.giftapi.strategy.model.command.CreateKidStrategyCommand;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.Map;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
 
 @Component("GIRL")
-public class GirlCreationStrategy implements KidCreationStrategy {
+public class GirlCreationStrategy implements KidBatchCreationStrategy {
+
+    private static final int MAX_SKIRT_COLOR_LENGTH = 20;
+
+    private final KidTypeDescriptor<Girl> descriptor = new KidTypeDescriptor<>("GIRL", Girl::new, List.of(
+            new KidField<>("skirtColor", (girl, value) -> girl.setSkirtColor(parseSubtypeValue(value)))));
 
     @Override
     public Girl create(CreateKidStrategyCommand strategyCommand) {
-        Map<String, String> params = strategyCommand.getParams();
-        return Girl.builder()
-                .firstName(params.get("firstName"))
-                .lastName(params.get("lastName"))
-                .birthDate(LocalDate.parse(params.get("birthDate"), DateTimeFormatter.ofPattern("yyyy-MM-dd")))
-                .skirtColor(params.get("skirtColor"))
-                .build();
+        return descriptor.create(strategyCommand.getParams());
+    }
+
+    @Override
+    public KidTypeDescriptor<Girl> descriptor() {
+        return descriptor;
+    }
+
+    @Override
+    public String kidType() {
+        return descriptor.getType();
+    }
+
+    @Override
+    public KidSubtypeColumn subtypeColumn() {
+        return KidSubtypeColumn.SKIRT_COLOR;
+    }
+
+    // the skirt color is optional, an empty column leaves it NULL
+    @Override
+    public String parseSubtypeValue(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if (value.length() > MAX_SKIRT_COLOR_LENGTH) {
+            throw new IllegalArgumentException("skirt color is longer than " + MAX_SKIRT_COLOR_LENGTH + " characters");
+        }
+        return value;
+    }
+
+    @Override
+    public void bindSubtypeValue(PreparedStatement ps, int parameterIndex, Object value) throws SQLException {
+        ps.setString(parameterIndex, (String) value);
     }
 }
@@ -0,0 +1,20 @@
+package io.github.Piotr7421.giftapi.strategy;
+
+import io.github.Piotr7421.giftapi.strategy.model.KidSubtypeColumn;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+// The bulk importer creates no entities, so instead of create() it asks the strategy to validate its
+// subtype column of a CSV record and to bind the value into the insert shared by every kid type
+public interface KidBatchCreationStrategy extends KidCreationStrategy {
+
+    String kidType();
+
+    KidSubtypeColumn subtypeColumn();
+
+    // the message of the IllegalArgumentException becomes the reason the record is rejected for
+    Object parseSubtypeValue(String value);
+
+    void bindSubtypeValue(PreparedStatement ps, int parameterIndex, Object value) throws SQLException;
+}
@@ -0,0 +1,81 @@
+package io.github.Piotr7421.giftapi.strategy;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.jackson.JsonComponent;
+import io.github.Piotr7421.giftapi.exceptions.UnknownKidTypeException;
+import io.github.Piotr7421.giftapi.model.Kid;
+import io.github.Piotr7421.giftapi.strategy.model.command.ParsedKidCommand;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+
+// Reads a {"type": ..., "params": {...}} command token by token straight into the kid of that type,
+// without a params map in between. Params sent before the type are buffered until the type is known.
+// Every command is read to its end even when it is invalid, so the items after it still parse.
+@JsonComponent
+@RequiredArgsConstructor
+public class KidCommandDeserializer extends JsonDeserializer<ParsedKidCommand> {
+
+    private final KidStrategyRegistry kidStrategyRegistry;
+
+    @Override
+    public ParsedKidCommand deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartObjectToken()) {
+            return (ParsedKidCommand) context.handleUnexpectedToken(ParsedKidCommand.class, parser);
+        }
+        String type = null;
+        Kid kid = null;
+        RuntimeException error = null;
+        TokenBuffer bufferedParams = null;
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            if (name.equals("type") && parser.currentToken().isStructStart()) {
+                parser.skipChildren();
+                error = new IllegalArgumentException("type is not a string");
+            } else if (name.equals("type")) {
+                type = parser.getValueAsString();
+            } else if (name.equals("params") && type == null) {
+                bufferedParams = context.bufferAsCopyOfValue(parser);
+            } else if (name.equals("params")) {
+                try {
+                    kid = read(type, parser);
+                } catch (UnknownKidTypeException | IllegalArgumentException | DateTimeException e) {
+                    error = e;
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (kid == null && error == null) {
+            try {
+                kid = bufferedParams == null ? kidStrategyRegistry.get(type).descriptor().create(null) : readBuffered(type, bufferedParams);
+            } catch (UnknownKidTypeException | IllegalArgumentException | DateTimeException e) {
+                error = e;
+            }
+        }
+        return new ParsedKidCommand(type, kid, error);
+    }
+
+    private Kid read(String type, JsonParser parser) throws IOException {
+        KidTypeDescriptor<? extends Kid> descriptor;
+        try {
+            descriptor = kidStrategyRegistry.get(type).descriptor();
+        } catch (UnknownKidTypeException e) {
+            parser.skipChildren();
+            throw e;
+        }
+        return descriptor.read(parser);
+    }
+
+    private Kid readBuffered(String type, TokenBuffer bufferedParams) throws IOException {
+        try (JsonParser paramsParser = bufferedParams.asParser()) {
+            paramsParser.nextToken();
+            return read(type, paramsParser);
+        }
+    }
+}
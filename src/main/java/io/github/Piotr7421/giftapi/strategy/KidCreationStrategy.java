@@ -6,4 +6,6 @@ import io.github.Piotr7421.giftapi.strategy.model.command.CreateKidStrategyComma
 public interface KidCreationStrategy {
 
     Kid create(CreateKidStrategyCommand strategyCommand);
+
+    KidTypeDescriptor<? extends Kid> descriptor();
 }
@@ -0,0 +1,26 @@
+package io.github.Piotr7421.giftapi.strategy;
+
+import org.springframework.stereotype.Component;
+import io.github.Piotr7421.giftapi.exceptions.UnknownKidTypeException;
+
+import java.text.MessageFormat;
+import java.util.Map;
+
+// Strategies are registered under their bean name, which is the type clients send
+@Component
+public class KidStrategyRegistry {
+
+    private final Map<String, KidCreationStrategy> strategies;
+
+    public KidStrategyRegistry(Map<String, KidCreationStrategy> kidCreationStrategies) {
+        this.strategies = Map.copyOf(kidCreationStrategies);
+    }
+
+    public KidCreationStrategy get(String type) {
+        KidCreationStrategy strategy = type == null ? null : strategies.get(type);
+        if (strategy == null) {
+            throw new UnknownKidTypeException(MessageFormat.format("Unknown kid type: {0}", type));
+        }
+        return strategy;
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.Piotr7421.giftapi.strategy;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.github.Piotr7421.giftapi.model.Kid;
+import io.github.Piotr7421.giftapi.strategy.model.KidField;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Field schema of one kid type, the fields every kid has followed by the fields of the type.
+// Built once per strategy, so creating a kid is only a lookup and a parse per param.
+public final class KidTypeDescriptor<K extends Kid> {
+
+    private static final int MAX_NAME_LENGTH = 50;
+
+    private final String type;
+    private final Supplier<K> factory;
+    private final List<KidField<K>> fields;
+    private final Map<String, Integer> fieldIndexes = new HashMap<>();
+
+    public KidTypeDescriptor(String type, Supplier<K> factory, List<KidField<K>> typeFields) {
+        this.type = type;
+        this.factory = factory;
+        this.fields = new ArrayList<>(List.of(
+                new KidField<>("firstName", (kid, value) -> kid.setFirstName(name("firstName", value))),
+                new KidField<>("lastName", (kid, value) -> kid.setLastName(name("lastName", value))),
+                new KidField<>("birthDate", (kid, value) -> kid.setBirthDate(birthDate(value)))));
+        this.fields.addAll(typeFields);
+        if (fields.size() > Long.SIZE) {
+            throw new IllegalArgumentException("A kid type can have at most " + Long.SIZE + " fields");
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            fieldIndexes.put(fields.get(i).name(), i);
+        }
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public K create(Map<String, String> params) {
+        K kid = factory.get();
+        for (KidField<K> field : fields) {
+            field.binder().accept(kid, params == null ? null : params.get(field.name()));
+        }
+        return kid;
+    }
+
+    // Reads the params object the parser is positioned on straight into the kid, unknown params are skipped.
+    // An invalid param is only thrown once the whole object is read, so the parser stays usable.
+    public K read(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return create(null);
+        }
+        K kid = factory.get();
+        long bound = 0;
+        RuntimeException error = null;
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            Integer index = fieldIndexes.get(name);
+            if (token.isStructStart()) {
+                parser.skipChildren();
+            }
+            if (index != null && error == null) {
+                try {
+                    fields.get(index).binder().accept(kid, token.isScalarValue() ? parser.getValueAsString() : null);
+                } catch (IllegalArgumentException | DateTimeException e) {
+                    error = e;
+                }
+                bound |= 1L << index;
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            if ((bound & 1L << i) == 0) {
+                fields.get(i).binder().accept(kid, null);
+            }
+        }
+        return kid;
+    }
+
+    private static String name(String field, String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is missing");
+        }
+        if (value.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException(field + " is longer than " + MAX_NAME_LENGTH + " characters");
+        }
+        return value;
+    }
+
+    private static LocalDate birthDate(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("birthDate is missing");
+        }
+        return LocalDate.parse(value, DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+}
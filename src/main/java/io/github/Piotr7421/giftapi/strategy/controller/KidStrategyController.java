@@ -2,14 +2,19 @@ package io.github.Piotr7421.giftapi.strategy.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
-import io.github.Piotr7421.giftapi.strategy.model.command.CreateKidStrategyCommand;
+import io.github.Piotr7421.giftapi.strategy.model.command.ParsedKidCommand;
+import io.github.Piotr7421.giftapi.strategy.model.dto.KidStrategyResultDto;
 import io.github.Piotr7421.giftapi.strategy.service.KidStrategyService;
 
+import java.io.InputStream;
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/strategy/kids")
@@ -17,9 +22,20 @@ public class KidStrategyController {
 
     private final KidStrategyService kidStrategyService;
 
-    @PostMapping
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
-    public void create(@RequestBody CreateKidStrategyCommand strategyCommand) {
-        kidStrategyService.create(strategyCommand);
+    public void create(InputStream json) {
+        kidStrategyService.create(json);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<KidStrategyResultDto> createAll(@RequestBody List<ParsedKidCommand> parsedCommands) {
+        return kidStrategyService.createAll(parsedCommands);
+    }
+
+    // one command per line, read from the body as it arrives
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public List<KidStrategyResultDto> createAll(InputStream ndjson) {
+        return kidStrategyService.createAll(kidStrategyService.readCommands(ndjson));
     }
 }
@@ -0,0 +1,10 @@
+package io.github.Piotr7421.giftapi.strategy.model;
+
+import io.github.Piotr7421.giftapi.model.Kid;
+
+import java.util.function.BiConsumer;
+
+// The binder parses the raw value of one param into the kid and gets null when the param is missing,
+// so it decides itself whether the field is required
+public record KidField<K extends Kid>(String name, BiConsumer<K, String> binder) {
+}
@@ -0,0 +1,17 @@
+package io.github.Piotr7421.giftapi.strategy.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.sql.Types;
+
+// Subtype columns of the single kid table, in the order they follow the type column of an import file
+@Getter
+@RequiredArgsConstructor
+public enum KidSubtypeColumn {
+    PANTS_LENGTH("pants_length", Types.INTEGER),
+    SKIRT_COLOR("skirt_color", Types.VARCHAR);
+
+    private final String columnName;
+    private final int sqlType;
+}
@@ -0,0 +1,8 @@
+package io.github.Piotr7421.giftapi.strategy.model.command;
+
+import io.github.Piotr7421.giftapi.model.Kid;
+
+// A kid command as the request body deserializer leaves it: the kid already built by its strategy,
+// or the reason it could not be, so one bad item of a batch does not fail the whole body
+public record ParsedKidCommand(String type, Kid kid, RuntimeException error) {
+}
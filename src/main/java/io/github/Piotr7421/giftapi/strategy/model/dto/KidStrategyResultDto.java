@@ -0,0 +1,14 @@
+package io.github.Piotr7421.giftapi.strategy.model.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class KidStrategyResultDto {
+
+    private String type;
+    private int status;
+    private Integer id;
+    private String message;
+}
@@ -1,27 +1,135 @@
 package io.github.Piotr7421.giftapi.strategy.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import io.github.Piotr7421.giftapi.exceptions.InvalidKidBatchException;
+import io.github.Piotr7421.giftapi.exceptions.InvalidKidCommandException;
+import io.github.Piotr7421.giftapi.exceptions.LoadingIOException;
+import io.github.Piotr7421.giftapi.exceptions.UnknownKidTypeException;
 import io.github.Piotr7421.giftapi.model.Kid;
 import io.github.Piotr7421.giftapi.repository.KidRepository;
-import io.github.Piotr7421.giftapi.strategy.KidCreationStrategy;
-import io.github.Piotr7421.giftapi.strategy.model.command.CreateKidStrategyCommand;
+import io.github.Piotr7421.giftapi.strategy.model.command.ParsedKidCommand;
+import io.github.Piotr7421.giftapi.strategy.model.dto.KidStrategyResultDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.MessageFormat;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class KidStrategyService {
 
-    private final Map<String, KidCreationStrategy> kidCreationStrategies;
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private final KidRepository kidRepository;
+    private final ObjectMapper objectMapper;
+
+    // the body is bound token by token straight into the kid by KidCommandDeserializer
+    public void create(InputStream json) {
+        ParsedKidCommand parsedCommand;
+        try {
+            parsedCommand = objectMapper.readValue(json, ParsedKidCommand.class);
+        } catch (JsonProcessingException e) {
+            throw new InvalidKidCommandException("Request body is not a valid kid command");
+        } catch (IOException e) {
+            throw new LoadingIOException("Could not read kid command from request body");
+        }
+        if (parsedCommand == null) {
+            throw new InvalidKidCommandException("Request body is not a valid kid command");
+        }
+        if (parsedCommand.error() instanceof UnknownKidTypeException unknownType) {
+            throw unknownType;
+        }
+        save(createKid(() -> {
+            if (parsedCommand.error() != null) {
+                throw parsedCommand.error();
+            }
+            return parsedCommand.kid();
+        }));
+    }
+
+    // Invalid items are answered one by one and do not stop the others. Valid kids are saved grouped by
+    // type, so every flush repeats the same INSERT and the JDBC batches are not cut short by type changes.
+    @Transactional
+    public List<KidStrategyResultDto> createAll(List<ParsedKidCommand> parsedCommands) {
+        if (parsedCommands.size() > MAX_BATCH_SIZE) {
+            throw new InvalidKidBatchException(MessageFormat.format("At most {0} kids can be created in one batch", MAX_BATCH_SIZE));
+        }
+        KidStrategyResultDto[] results = new KidStrategyResultDto[parsedCommands.size()];
+        Map<String, List<PendingKid>> kidsByType = new LinkedHashMap<>();
+        for (int i = 0; i < parsedCommands.size(); i++) {
+            ParsedKidCommand parsedCommand = parsedCommands.get(i);
+            if (parsedCommand.error() != null) {
+                results[i] = rejected(parsedCommand, parsedCommand.error().getMessage());
+            } else {
+                kidsByType.computeIfAbsent(parsedCommand.type(), type -> new ArrayList<>())
+                        .add(new PendingKid(i, parsedCommand.kid()));
+            }
+        }
+
+        kidsByType.forEach((type, kids) -> {
+            kidRepository.saveAllAndFlush(kids.stream().map(PendingKid::kid).toList());
+            log.info("created {} kids of type {}", kids.size(), type);
+            kids.forEach(pending -> results[pending.position()] = KidStrategyResultDto.builder()
+                    .type(type)
+                    .status(HttpStatus.CREATED.value())
+                    .id(pending.kid().getId())
+                    .build());
+        });
+        return List.of(results);
+    }
+
+    // reads one more command than a batch may hold, so an oversized stream is refused without reading all of it
+    public List<ParsedKidCommand> readCommands(InputStream ndjson) {
+        List<ParsedKidCommand> strategyCommands = new ArrayList<>();
+        try (MappingIterator<ParsedKidCommand> iterator = objectMapper.readerFor(ParsedKidCommand.class)
+                .readValues(ndjson)) {
+            while (strategyCommands.size() <= MAX_BATCH_SIZE && iterator.hasNextValue()) {
+                strategyCommands.add(iterator.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidKidBatchException(MessageFormat.format("Line {0} is not a valid kid command",
+                    e.getLocation() == null ? strategyCommands.size() + 1 : e.getLocation().getLineNr()));
+        } catch (IOException e) {
+            throw new LoadingIOException("Could not read kid commands from request body");
+        }
+        return strategyCommands;
+    }
 
-    public void create(CreateKidStrategyCommand strategyCommand) {
-        KidCreationStrategy creationStrategy = kidCreationStrategies.get(strategyCommand.getType());
-        Kid kid = creationStrategy.create(strategyCommand);
+    private void save(Kid kid) {
         log.info("created: {}", kid);
         kidRepository.save(kid);
     }
+
+    private static Kid createKid(Supplier<Kid> creation) {
+        try {
+            return creation.get();
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidKidCommandException(e.getMessage());
+        }
+    }
+
+    private static KidStrategyResultDto rejected(ParsedKidCommand parsedCommand, String message) {
+        return KidStrategyResultDto.builder()
+                .type(parsedCommand.type())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(message)
+                .build();
+    }
+
+    private record PendingKid(int position, Kid kid) {
+    }
 }
@@ -0,0 +1,33 @@
+package io.github.Piotr7421.giftapi.aspect;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import io.github.Piotr7421.giftapi.exceptions.GiftOptimisticLockingException;
+import io.github.Piotr7421.giftapi.exceptions.KidLockTimeoutException;
+import io.github.Piotr7421.giftapi.exceptions.KidNotFoundException;
+import io.github.Piotr7421.giftapi.exceptions.KidOptimisticLockingException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LockFailureMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LockFailureMetrics lockFailureMetrics = new LockFailureMetrics(meterRegistry);
+
+    @Test
+    void countLockFailure_ShouldCountOptimisticAndPessimisticFailuresApart() {
+        lockFailureMetrics.countLockFailure(new KidOptimisticLockingException("kid conflict"));
+        lockFailureMetrics.countLockFailure(new GiftOptimisticLockingException("gift conflict"));
+        lockFailureMetrics.countLockFailure(new KidLockTimeoutException("lock timeout"));
+        lockFailureMetrics.countLockFailure(new CannotAcquireLockException("lock wait"));
+        lockFailureMetrics.countLockFailure(new KidNotFoundException("not found"));
+
+        assertThat(lockFailures("optimistic")).isEqualTo(2);
+        assertThat(lockFailures("pessimistic")).isEqualTo(2);
+    }
+
+    private double lockFailures(String lock) {
+        return meterRegistry.get("lock.failures").tag("lock", lock).counter().count();
+    }
+}
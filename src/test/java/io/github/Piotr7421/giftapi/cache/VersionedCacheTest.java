@@ -0,0 +1,88 @@
+package io.github.Piotr7421.giftapi.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.github.Piotr7421.giftapi.model.dto.GiftDto;
+import io.github.Piotr7421.giftapi.properties.LookupCacheProperties;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionedCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GiftCache giftCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        giftCache = new GiftCache(new LookupCacheProperties(), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndRecordHitsAndMisses() {
+        GiftKey key = new GiftKey(1, 10);
+
+        giftCache.get(key, k -> load(0, "Lego"));
+        Optional<GiftDto> cached = giftCache.get(key, k -> load(0, "Other"));
+
+        assertThat(cached).map(GiftDto::getName).contains("Lego");
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "gifts").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "gifts").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void get_WhenNothingLoaded_ShouldNotCacheTheMiss() {
+        GiftKey key = new GiftKey(1, 10);
+
+        giftCache.get(key, k -> Optional.empty());
+        Optional<GiftDto> loaded = giftCache.get(key, k -> load(0, "Lego"));
+
+        assertThat(loaded).map(GiftDto::getName).contains("Lego");
+    }
+
+    @Test
+    void putAfterCommit_WhenVersionIsOlder_ShouldKeepNewerEntry() {
+        GiftKey key = new GiftKey(1, 10);
+
+        giftCache.putAfterCommit(key, () -> new Versioned<>(2, gift("Newer")));
+        giftCache.putAfterCommit(key, () -> new Versioned<>(1, gift("Stale")));
+
+        assertThat(giftCache.get(key, k -> load(0, "Loaded"))).map(GiftDto::getName).contains("Newer");
+        assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    void evictAllOfKidsAfterCommit_ShouldOnlyEvictGiftsOfThoseKids() {
+        giftCache.putAfterCommit(new GiftKey(1, 10), () -> new Versioned<>(0, gift("First")));
+        giftCache.putAfterCommit(new GiftKey(1, 11), () -> new Versioned<>(0, gift("Second")));
+        giftCache.putAfterCommit(new GiftKey(2, 12), () -> new Versioned<>(0, gift("Other kid")));
+
+        giftCache.evictAllOfKidsAfterCommit(List.of(1));
+
+        assertThat(giftCache.get(new GiftKey(1, 10), k -> Optional.empty())).isEmpty();
+        assertThat(giftCache.get(new GiftKey(1, 11), k -> Optional.empty())).isEmpty();
+        assertThat(giftCache.get(new GiftKey(2, 12), k -> Optional.empty())).map(GiftDto::getName).contains("Other kid");
+    }
+
+    private Optional<Versioned<GiftDto>> load(int version, String name) {
+        loads.incrementAndGet();
+        return Optional.of(new Versioned<>(version, gift(name)));
+    }
+
+    private static GiftDto gift(String name) {
+        return GiftDto.builder()
+                .name(name)
+                .price(9.99)
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.Piotr7421.giftapi.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("test")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class AsyncConfigTest {
+
+    @Autowired
+    @Qualifier("asyncTaskExecutor")
+    private AsyncTaskExecutor asyncTaskExecutor;
+
+    @Test
+    void asyncTaskExecutor_WhenVirtualThreadsEnabled_ShouldUseVirtualThreads() throws Exception {
+        // compiled for Java 17, so Thread.isVirtual() is only reachable reflectively
+        Method isVirtual = Thread.class.getMethod("isVirtual");
+
+        Object virtual = asyncTaskExecutor.submit(() -> isVirtual.invoke(Thread.currentThread())).get(5, TimeUnit.SECONDS);
+
+        assertThat(asyncTaskExecutor).isInstanceOf(SimpleAsyncTaskExecutor.class);
+        assertThat(virtual).isEqualTo(true);
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.Piotr7421.giftapi.configuration;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitingTaskDecoratorTest {
+
+    @Test
+    void decorate_ShouldNotRunMoreTasksAtOnceThanPermits() throws InterruptedException {
+        ConcurrencyLimitingTaskDecorator decorator = new ConcurrencyLimitingTaskDecorator(2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+
+        for (int i = 0; i < 10; i++) {
+            executor.execute(decorator.decorate(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep();
+                running.decrementAndGet();
+            }));
+        }
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(2);
+        assertThat(decorator.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void decorate_WhenTaskFails_ShouldReleasePermit() {
+        ConcurrencyLimitingTaskDecorator decorator = new ConcurrencyLimitingTaskDecorator(1);
+
+        try {
+            decorator.decorate(() -> {
+                throw new IllegalStateException("boom");
+            }).run();
+        } catch (IllegalStateException ignored) {
+        }
+
+        assertThat(decorator.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void activeAndQueuedTasks_ShouldFollowPermits() throws InterruptedException {
+        ConcurrencyLimitingTaskDecorator decorator = new ConcurrencyLimitingTaskDecorator(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        executor.execute(decorator.decorate(() -> await(release)));
+        // the second task is only submitted once the first holds the permit, so it is the one that waits
+        waitUntil(() -> decorator.activeTasks() == 1);
+        executor.execute(decorator.decorate(() -> {
+        }));
+
+        waitUntil(() -> decorator.activeTasks() == 1 && decorator.queuedTasks() == 1);
+        release.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(decorator.activeTasks()).isZero();
+        assertThat(decorator.queuedTasks()).isZero();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
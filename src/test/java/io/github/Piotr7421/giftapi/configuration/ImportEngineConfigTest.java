@@ -0,0 +1,25 @@
+package io.github.Piotr7421.giftapi.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import io.github.Piotr7421.giftapi.importer.H2CsvReadKidWriter;
+import io.github.Piotr7421.giftapi.importer.KidBatchWriter;
+import io.github.Piotr7421.giftapi.importer.MeteredKidBatchWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "jdbc.import-engine=bulk-load")
+@ActiveProfiles("test")
+class ImportEngineConfigTest {
+
+    @Autowired
+    private KidBatchWriter kidBatchWriter;
+
+    @Test
+    void kidBatchWriter_WhenBulkLoadEngineOnH2_ShouldUseCsvRead() {
+        assertThat(kidBatchWriter).isInstanceOfSatisfying(MeteredKidBatchWriter.class,
+                metered -> assertThat(metered.getDelegate()).isInstanceOf(H2CsvReadKidWriter.class));
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.Piotr7421.giftapi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import io.github.Piotr7421.giftapi.model.Gift;
+import io.github.Piotr7421.giftapi.model.Kid;
+import io.github.Piotr7421.giftapi.model.command.CreateBulkGiftsCommand;
+import io.github.Piotr7421.giftapi.model.command.CreateGiftCommand;
+import io.github.Piotr7421.giftapi.model.command.KidGiftCommand;
+import io.github.Piotr7421.giftapi.repository.GiftRepository;
+import io.github.Piotr7421.giftapi.repository.KidRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class GiftControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private KidRepository kidRepository;
+    @Autowired
+    private GiftRepository giftRepository;
+
+    private Kid kidWithTwoGifts;
+    private Kid kidWithoutGifts;
+
+    @BeforeEach
+    void setUp() {
+        kidWithTwoGifts = saveKid("Jan");
+        kidWithoutGifts = saveKid("Anna");
+        for (int i = 0; i < 2; i++) {
+            giftRepository.save(Gift.builder()
+                    .name("Lego" + i)
+                    .price(199.99)
+                    .kid(kidWithTwoGifts)
+                    .build());
+            kidRepository.incrementGiftCount(kidWithTwoGifts.getId(), Integer.MAX_VALUE);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        giftRepository.deleteAll();
+        kidRepository.deleteAll();
+    }
+
+    @Test
+    void createBulk_ShouldCreateGiftsWithinQuotaAndReportTheRest() throws Exception {
+        int missingKidId = kidWithoutGifts.getId() + 1000;
+        CreateBulkGiftsCommand command = new CreateBulkGiftsCommand()
+                .setGifts(List.of(
+                        gift(kidWithTwoGifts.getId(), "Bike"),
+                        gift(kidWithTwoGifts.getId(), "Scooter"),
+                        gift(kidWithoutGifts.getId(), "Doll"),
+                        gift(missingKidId, "Ball")));
+
+        mockMvc.perform(post("/api/v1/gifts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(command)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].gift.name").value("Bike"))
+                .andExpect(jsonPath("$[1].status").value(400))
+                .andExpect(jsonPath("$[1].message", containsString("To many gifts for kid with id=")))
+                .andExpect(jsonPath("$[2].status").value(201))
+                .andExpect(jsonPath("$[2].gift.name").value("Doll"))
+                .andExpect(jsonPath("$[3].status").value(404))
+                .andExpect(jsonPath("$[3].message", containsString("not found")));
+
+        assertThat(kidRepository.findById(kidWithTwoGifts.getId()).orElseThrow().getGiftCount()).isEqualTo(3);
+        assertThat(kidRepository.findById(kidWithoutGifts.getId()).orElseThrow().getGiftCount()).isEqualTo(1);
+        assertThat(giftRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void createBulk_WhenGiftsEmpty_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/gifts/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"gifts\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Validation error")));
+    }
+
+    private Kid saveKid(String firstName) {
+        return kidRepository.save(Kid.builder()
+                .firstName(firstName)
+                .lastName("Kowalski")
+                .birthDate(LocalDate.of(2012, 4, 21))
+                .build());
+    }
+
+    private static KidGiftCommand gift(int kidId, String name) {
+        return new KidGiftCommand()
+                .setKidId(kidId)
+                .setGift(new CreateGiftCommand()
+                        .setName(name)
+                        .setPrice(49.99));
+    }
+}
@@ -21,6 +21,8 @@ import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -60,7 +62,7 @@ class KidControllerLargeFileIntegrationTest {
         mockMvc.perform(multipart("/api/v1/kids/upload")
                         .file(file)
                         .contentType(MediaType.MULTIPART_FORM_DATA))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
 
         await().atMost(5, TimeUnit.MINUTES)
                 .pollInterval(50, TimeUnit.MILLISECONDS)
@@ -94,7 +96,7 @@ class KidControllerLargeFileIntegrationTest {
         mockMvc.perform(multipart("/api/v1/kids/upload")
                         .file(file)
                         .contentType(MediaType.MULTIPART_FORM_DATA))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
 
         // wait for processing and check memory usage
         await().atMost(5, TimeUnit.MINUTES)
@@ -130,7 +132,7 @@ class KidControllerLargeFileIntegrationTest {
         mockMvc.perform(multipart("/api/v1/kids/upload")
                         .file(file)
                         .contentType(MediaType.MULTIPART_FORM_DATA))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
 
         // verify that records are being inserted in batches by checking intermediate counts
         await().atMost(30, TimeUnit.SECONDS)
@@ -149,6 +151,35 @@ class KidControllerLargeFileIntegrationTest {
                 });
     }
 
+    @Test
+    void shouldImport100ThousandKidsFromStreamedRequestBody() throws Exception {
+        ClassPathResource resource = new ClassPathResource(CSV_FILE_PATH);
+        long initialCount = kidRepository.count();
+
+        mockMvc.perform(post("/api/v1/kids/import/stream")
+                        .contentType("text/csv")
+                        .content(resource.getContentAsByteArray()))
+                .andExpect(status().isOk());
+
+        // the streamed import is synchronous, every row is stored once the response is returned
+        assertEquals(initialCount + EXPECTED_RECORDS_COUNT, kidRepository.count());
+    }
+
+    @Test
+    void shouldQuarantineMalformedRowsOfStreamedRequestBody() throws Exception {
+        long initialCount = kidRepository.count();
+
+        mockMvc.perform(post("/api/v1/kids/import/stream")
+                        .contentType("text/csv")
+                        .content("firstName,lastName,birthDate\nJan,Kowalski,2010-02-30\nAnna,Nowak,2012-08-22\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.rowsInserted").value(1))
+                .andExpect(jsonPath("$.rowsRejected").value(1));
+
+        assertEquals(initialCount + 1, kidRepository.count());
+    }
+
     private MockMultipartFile createMockMultipartFileFromResource(ClassPathResource resource) throws IOException {
         try (InputStream inputStream = resource.getInputStream()) {
             byte[] content = inputStream.readAllBytes();
@@ -1,16 +1,22 @@
 package io.github.Piotr7421.giftapi.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import io.github.Piotr7421.giftapi.model.Gift;
 import io.github.Piotr7421.giftapi.model.Kid;
 import io.github.Piotr7421.giftapi.model.command.CreateGiftCommand;
@@ -19,24 +25,35 @@ import io.github.Piotr7421.giftapi.model.command.UpdateGiftCommand;
 import io.github.Piotr7421.giftapi.model.command.UpdateKidCommand;
 import io.github.Piotr7421.giftapi.repository.GiftRepository;
 import io.github.Piotr7421.giftapi.repository.KidRepository;
+import io.github.Piotr7421.giftapi.strategy.model.Boy;
+import io.github.Piotr7421.giftapi.strategy.model.Girl;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.awaitility.Awaitility.await;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -52,6 +69,8 @@ class KidControllerTest {
     private KidRepository kidRepository;
     @Autowired
     private GiftRepository giftRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     private Kid kid;
     private Gift gift;
@@ -65,12 +84,11 @@ class KidControllerTest {
                 .build();
         kidRepository.save(kid);
 
-        gift = Gift.builder()
+        gift = saveGift(Gift.builder()
                 .name("Lego")
                 .price(199.99)
                 .kid(kid)
-                .build();
-        giftRepository.save(gift);
+                .build());
     }
 
     @AfterEach
@@ -89,6 +107,40 @@ class KidControllerTest {
                 .andExpect(jsonPath("$.content", hasSize(1)));
     }
 
+    @Test
+    void findAllByCursor_ShouldWalkAllKidsWithoutRepeating() throws Exception {
+        IntStream.range(0, 4).forEach(i -> kidRepository.save(Kid.builder()
+                .firstName("Kid" + i)
+                .lastName("Nowak")
+                .birthDate(LocalDate.of(2013, 1, 1))
+                .build()));
+
+        String firstPage = mockMvc.perform(get("/api/v1/kids/cursor").param("limit", "3"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(3)))
+                .andExpect(jsonPath("$.content[0].id").value(kid.getId()))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        String next = JsonPath.read(firstPage, "$.next");
+        Integer lastId = JsonPath.read(firstPage, "$.content[2].id");
+
+        mockMvc.perform(get("/api/v1/kids/cursor").param("after", next).param("limit", "3"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].id", greaterThan(lastId)))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void findAllByCursor_WhenCursorInvalid_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/kids/cursor").param("after", "not-a-cursor"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor not-a-cursor is not valid"));
+    }
+
     @Test
     void findById_ShouldReturnKid() throws Exception {
         mockMvc.perform(get("/api/v1/kids/{kidId}", kid.getId()))
@@ -207,6 +259,38 @@ class KidControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void deleteAll_ShouldRemoveKidsWithTheirGiftsInOneRequest() throws Exception {
+        Kid second = kidRepository.save(Kid.builder()
+                .firstName("Anna")
+                .lastName("Nowak")
+                .birthDate(LocalDate.of(2013, 1, 1))
+                .build());
+        Kid kept = kidRepository.save(Kid.builder()
+                .firstName("Ola")
+                .lastName("Nowak")
+                .birthDate(LocalDate.of(2014, 1, 1))
+                .build());
+        Gift giftOfSecond = saveGift(Gift.builder()
+                .name("Doll")
+                .price(59.99)
+                .kid(second)
+                .build());
+        mockMvc.perform(get("/api/v1/kids/{kidId}/gifts/{giftId}", second.getId(), giftOfSecond.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/v1/kids").param("ids", kid.getId() + "," + second.getId()))
+                .andDo(print())
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/kids/{kidId}", second.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/kids/{kidId}/gifts/{giftId}", second.getId(), giftOfSecond.getId()))
+                .andExpect(status().isNotFound());
+        assertThat(kidRepository.findAll()).extracting(Kid::getId).containsExactly(kept.getId());
+        assertThat(giftRepository.count()).isZero();
+    }
+
     @Test
     void findAllGifts_ShouldReturnGiftsOfKid() throws Exception {
         mockMvc.perform(get("/api/v1/kids/{kidId}/gifts", kid.getId()))
@@ -217,6 +301,75 @@ class KidControllerTest {
                 .andExpect(jsonPath("$.content[0].name").value("Lego"));
     }
 
+    @Test
+    void findAllGiftsByCursor_ShouldReturnGiftsOfKid() throws Exception {
+        mockMvc.perform(get("/api/v1/kids/{kidId}/gifts/cursor", kid.getId()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id").value(gift.getId()))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void findAllGifts_ShouldNotLoadTheKidOfEveryGift() throws Exception {
+        IntStream.range(0, 2).forEach(i -> saveGift(Gift.builder()
+                .name("Puzzle" + i)
+                .price(49.99)
+                .kid(kid)
+                .build()));
+        Statistics statistics = clearedStatistics();
+
+        mockMvc.perform(get("/api/v1/kids/{kidId}/gifts", kid.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(3)));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void findAllWithGifts_ShouldFetchGiftsOfTheWholePageInOneQuery() throws Exception {
+        IntStream.range(0, 5).forEach(i -> {
+            Kid other = kidRepository.save(Kid.builder()
+                    .firstName("Kid" + i)
+                    .lastName("Nowak")
+                    .birthDate(LocalDate.of(2013, 1, 1))
+                    .build());
+            saveGift(Gift.builder()
+                    .name("Ball" + i)
+                    .price(19.99)
+                    .kid(other)
+                    .build());
+        });
+        Statistics statistics = clearedStatistics();
+
+        mockMvc.perform(get("/api/v1/kids/with-gifts").param("sort", "id"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(6)))
+                .andExpect(jsonPath("$.content[0].id").value(kid.getId()))
+                .andExpect(jsonPath("$.content[0].gifts[0].name").value("Lego"))
+                .andExpect(jsonPath("$.content[5].gifts[0].name").value("Ball4"));
+
+        // one query for the page of ids and one join for the kids with their gifts
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findWithGiftsById_ShouldReturnKidWithGifts() throws Exception {
+        Statistics statistics = clearedStatistics();
+
+        mockMvc.perform(get("/api/v1/kids/{kidId}/with-gifts", kid.getId()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Jan"))
+                .andExpect(jsonPath("$.gifts", hasSize(1)))
+                .andExpect(jsonPath("$.gifts[0].id").value(gift.getId()));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
     @Test
     void findGiftById_ShouldReturnGift() throws Exception {
         mockMvc.perform(get("/api/v1/kids/{kidId}/gifts/{giftId}", kid.getId(), gift.getId()))
@@ -254,7 +407,7 @@ class KidControllerTest {
     @Test
     void createGift_WhenTooManyGifts_ShouldReturnBadRequest() throws Exception {
         IntStream.range(0, 3).forEach(i ->
-                giftRepository.save(Gift.builder()
+                saveGift(Gift.builder()
                         .name("Extra" + i)
                         .price(10.0 + i)
                         .kid(kid)
@@ -355,7 +508,7 @@ class KidControllerTest {
         mockMvc.perform(multipart("/api/v1/kids/upload")
                         .file(file)
                         .contentType(MediaType.MULTIPART_FORM_DATA))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
 
         await().atMost(10, TimeUnit.SECONDS)
                 .untilAsserted(() -> {
@@ -385,7 +538,7 @@ class KidControllerTest {
         mockMvc.perform(multipart("/api/v1/kids/upload")
                         .file(file)
                         .contentType(MediaType.MULTIPART_FORM_DATA))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
 
         await().atMost(30, TimeUnit.SECONDS)
                 .untilAsserted(() -> {
@@ -410,7 +563,7 @@ class KidControllerTest {
         mockMvc.perform(multipart("/api/v1/kids/upload")
                         .file(file)
                         .contentType(MediaType.MULTIPART_FORM_DATA))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
 
         await().atMost(5, TimeUnit.SECONDS)
                 .untilAsserted(() -> {
@@ -445,7 +598,7 @@ class KidControllerTest {
         mockMvc.perform(multipart("/api/v1/kids/upload")
                         .file(file)
                         .contentType(MediaType.MULTIPART_FORM_DATA))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
 
         await().atMost(10, TimeUnit.SECONDS)
                 .untilAsserted(() -> {
@@ -473,7 +626,7 @@ class KidControllerTest {
         mockMvc.perform(multipart("/api/v1/kids/upload")
                         .file(file)
                         .contentType(MediaType.MULTIPART_FORM_DATA))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
 
         await().atMost(10, TimeUnit.SECONDS)
                 .untilAsserted(() -> {
@@ -503,7 +656,7 @@ class KidControllerTest {
         mockMvc.perform(multipart("/api/v1/kids/upload")
                         .file(file)
                         .contentType(MediaType.MULTIPART_FORM_DATA))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
 
         await().atMost(10, TimeUnit.SECONDS)
                 .untilAsserted(() -> {
@@ -512,4 +665,188 @@ class KidControllerTest {
                 });
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldReportImportJobStatusUntilCompleted() throws Exception {
+        String csvContent = """
+                first_name,last_name,birth_date
+                Jan,Kowalski,2010-05-15
+                Anna,Nowak,2012-08-22
+                """;
+
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "kids.csv",
+                "text/csv",
+                csvContent.getBytes(StandardCharsets.UTF_8)
+        );
+
+        String response = mockMvc.perform(multipart("/api/v1/kids/upload")
+                        .file(file)
+                        .contentType(MediaType.MULTIPART_FORM_DATA))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").exists())
+                .andExpect(jsonPath("$.fileName").value("kids.csv"))
+                .andReturn().getResponse().getContentAsString();
+        String jobId = JsonPath.read(response, "$.id");
+
+        await().atMost(10, TimeUnit.SECONDS)
+                .untilAsserted(() -> mockMvc.perform(get("/api/v1/kids/import/{jobId}", jobId))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.status").value("COMPLETED"))
+                        .andExpect(jsonPath("$.rowsParsed").value(2))
+                        .andExpect(jsonPath("$.rowsInserted").value(2))
+                        .andExpect(jsonPath("$.batchesCommitted").value(greaterThanOrEqualTo(1))));
+    }
+
+    @Test
+    void shouldReportRejectedRowsOfImportJob() throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "broken.csv",
+                "text/csv",
+                "first_name,last_name,birth_date\nAnna,Nowak,2012-08-22\nJan,Kowalski,15.05.2010\nOla\n".getBytes(StandardCharsets.UTF_8)
+        );
+
+        String response = mockMvc.perform(multipart("/api/v1/kids/upload")
+                        .file(file)
+                        .contentType(MediaType.MULTIPART_FORM_DATA))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String jobId = JsonPath.read(response, "$.id");
+
+        await().atMost(10, TimeUnit.SECONDS)
+                .untilAsserted(() -> mockMvc.perform(get("/api/v1/kids/import/{jobId}", jobId))
+                        .andExpect(jsonPath("$.status").value("COMPLETED"))
+                        .andExpect(jsonPath("$.rowsInserted").value(1))
+                        .andExpect(jsonPath("$.rowsRejected").value(2)));
+        String firstPage = mockMvc.perform(get("/api/v1/kids/import/{jobId}/rejects", jobId).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].lineNumber").value(3))
+                .andExpect(jsonPath("$.content[0].reason").value("birth date is not in yyyy-MM-dd format"))
+                .andExpect(jsonPath("$.content[0].content").value("Jan,Kowalski,15.05.2010"))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/v1/kids/import/{jobId}/rejects", jobId)
+                        .param("after", JsonPath.<String>read(firstPage, "$.next"))
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].lineNumber").value(4))
+                .andExpect(jsonPath("$.content[0].reason").value("missing fields"))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void importKidsFromStream_WithTypeColumn_ShouldCreateBoysAndGirlsInOneImport() throws Exception {
+        String csv = """
+                firstName,lastName,birthDate,type,pantsLength,skirtColor
+                Tomek,Nowak,2014-01-01,BOY,92,
+                Ola,Nowak,2015-02-02,GIRL,,red
+                Piotr,Lis,2013-03-03
+                Zosia,Lis,2013-03-03,BOY
+                """;
+
+        mockMvc.perform(post("/api/v1/kids/import/stream")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsInserted").value(3))
+                .andExpect(jsonPath("$.rowsRejected").value(1));
+
+        assertThat(kidRepository.findAll())
+                .filteredOn(kid -> !kid.getFirstName().equals("Jan"))
+                .extracting(Kid::getFirstName, Kid::getClass,
+                        kid -> kid instanceof Boy boy ? boy.getPantsLength() : null,
+                        kid -> kid instanceof Girl girl ? girl.getSkirtColor() : null)
+                .containsExactlyInAnyOrder(
+                        tuple("Tomek", Boy.class, 92, null),
+                        tuple("Ola", Girl.class, null, "red"),
+                        tuple("Piotr", Kid.class, null, null));
+    }
+
+    @Test
+    void export_ShouldStreamKidsWithGiftsAsNdjson() throws Exception {
+        kidRepository.save(Kid.builder()
+                .firstName("Anna")
+                .lastName("Nowak")
+                .birthDate(LocalDate.of(2013, 1, 1))
+                .build());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/kids/export").param("includeGifts", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(JsonPath.<String>read(lines[0], "$.firstName")).isEqualTo("Jan");
+        assertThat(JsonPath.<String>read(lines[0], "$.gifts[0].name")).isEqualTo("Lego");
+        assertThat(JsonPath.<String>read(lines[1], "$.firstName")).isEqualTo("Anna");
+        assertThat(JsonPath.<List<Object>>read(lines[1], "$.gifts")).isEmpty();
+    }
+
+    @Test
+    void export_AsCsv_ShouldBeImportableAgain() throws Exception {
+        kidRepository.save(Kid.builder()
+                .firstName("Anna, Maria")
+                .lastName("Nowak")
+                .birthDate(LocalDate.of(2013, 1, 1))
+                .build());
+        kidRepository.save(Boy.builder()
+                .firstName("Tomek")
+                .lastName("Nowak")
+                .birthDate(LocalDate.of(2014, 1, 1))
+                .pantsLength(92)
+                .build());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/kids/export").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csv = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(csv).startsWith("firstName,lastName,birthDate,type,pantsLength,skirtColor,id\n"
+                + "Jan,Kowalski,2012-04-21,,,," + kid.getId() + "\n");
+        assertThat(csv).contains("Tomek,Nowak,2014-01-01,BOY,92,,");
+
+        mockMvc.perform(post("/api/v1/kids/import/stream")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsInserted").value(3))
+                .andExpect(jsonPath("$.rowsRejected").value(0));
+        assertThat(kidRepository.findAll())
+                .extracting(Kid::getFirstName, Kid::getClass)
+                .containsExactlyInAnyOrder(tuple("Jan", Kid.class), tuple("Anna, Maria", Kid.class), tuple("Tomek", Boy.class),
+                        tuple("Jan", Kid.class), tuple("Anna, Maria", Kid.class), tuple("Tomek", Boy.class));
+    }
+
+    @Test
+    void findImportJob_WhenJobNotFound_ShouldReturn404() throws Exception {
+        UUID jobId = UUID.randomUUID();
+
+        mockMvc.perform(get("/api/v1/kids/import/{jobId}", jobId))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Import job with id=" + jobId + " not found"));
+    }
+
+    @Test
+    void cancelImportJob_WhenJobNotFound_ShouldReturn404() throws Exception {
+        mockMvc.perform(delete("/api/v1/kids/import/{jobId}", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    // gifts seeded past the service have to keep the kid's gift counter in step
+    private Statistics clearedStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private Gift saveGift(Gift toSave) {
+        Gift saved = giftRepository.save(toSave);
+        kidRepository.incrementGiftCount(toSave.getKid().getId(), Integer.MAX_VALUE);
+        return saved;
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.Piotr7421.giftapi.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// metrics export is switched off in tests unless asked for, which needs a context of its own,
+// so it also gets its own database instead of recreating the one the other contexts share
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:prometheus_endpoint;MODE=MySQL")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class PrometheusEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheus_ShouldExposeServiceTimersLockFailuresImportAndExecutorMetrics() throws Exception {
+        mockMvc.perform(get("/api/v1/kids/{id}", Integer.MAX_VALUE))
+                .andExpect(status().isNotFound());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape.lines().filter(line -> line.startsWith("service_calls_seconds_bucket")))
+                .anySatisfy(line -> assertThat(line)
+                        .contains("class=\"io.github.Piotr7421.giftapi.service.KidService\"")
+                        .contains("method=\"findById\"")
+                        .contains("exception=\"KidNotFoundException\""));
+        assertThat(scrape)
+                .contains("lock_failures_total{lock=\"optimistic\"}")
+                .contains("lock_failures_total{lock=\"pessimistic\"}")
+                .contains("kid_import_batch_latency_seconds_count")
+                .contains("kid_import_rows_total")
+                .contains("kid_import_batch_rows_per_second_rows")
+                .contains("executor_active_threads{name=\"asyncTaskExecutor\"}")
+                .contains("executor_queued_tasks{name=\"asyncTaskExecutor\"}");
+    }
+}
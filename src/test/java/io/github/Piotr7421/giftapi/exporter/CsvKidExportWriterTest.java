@@ -0,0 +1,60 @@
+package io.github.Piotr7421.giftapi.exporter;
+
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CsvKidExportWriterTest {
+
+    @Test
+    void gift_WhenNamesHoldSeparators_ShouldEscapeThemSoTheColumnParsesBack() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CsvKidExportWriter writer = new CsvKidExportWriter(output, true);
+
+        writer.startKid(7, "Jan", "Kowalski", LocalDate.of(2012, 4, 21), "Kid", null, null);
+        writer.gift(1, "Lego: City; set 2", 199.99);
+        writer.gift(2, "C:\\toys", 5.0);
+        writer.gift(3, "Ball", 10.5);
+        writer.endKid();
+        writer.finish();
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines[1]).isEqualTo("Jan,Kowalski,2012-04-21,,,,7,Lego\\: City\\; set 2:199.99;C\\:\\\\toys:5.0;Ball:10.5");
+        assertThat(parseGifts(lines[1].substring(lines[1].lastIndexOf(',') + 1)))
+                .containsExactly(
+                        tuple("Lego: City; set 2", "199.99"),
+                        tuple("C:\\toys", "5.0"),
+                        tuple("Ball", "10.5"));
+    }
+
+    private static List<Tuple> parseGifts(String column) {
+        List<Tuple> gifts = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        String name = null;
+        for (int i = 0; i < column.length(); i++) {
+            char current = column.charAt(i);
+            if (current == '\\') {
+                value.append(column.charAt(++i));
+            } else if (current == ':') {
+                name = value.toString();
+                value.setLength(0);
+            } else if (current == ';') {
+                gifts.add(tuple(name, value.toString()));
+                value.setLength(0);
+            } else {
+                value.append(current);
+            }
+        }
+        gifts.add(tuple(name, value.toString()));
+        return gifts;
+    }
+}
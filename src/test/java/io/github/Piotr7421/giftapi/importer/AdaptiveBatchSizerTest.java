@@ -0,0 +1,65 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.github.Piotr7421.giftapi.properties.AdaptiveBatchProperties;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveBatchSizerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveBatchSizer adaptiveBatchSizer;
+
+    @BeforeEach
+    void setUp() {
+        AdaptiveBatchProperties properties = new AdaptiveBatchProperties();
+        properties.setMinRowsPerStatement(100);
+        properties.setMaxRowsPerStatement(1000);
+        properties.setInitialRowsPerStatement(500);
+        properties.setIncreaseStep(100);
+        properties.setDecreaseFactor(0.5);
+        properties.setTargetLatencyMillis(200);
+        meterRegistry = new SimpleMeterRegistry();
+        adaptiveBatchSizer = new AdaptiveBatchSizer(properties, meterRegistry);
+    }
+
+    @Test
+    void observe_WhenStatementIsFast_ShouldIncreaseAdditively() {
+        adaptiveBatchSizer.observe(500, TimeUnit.MILLISECONDS.toNanos(50));
+
+        assertThat(adaptiveBatchSizer.getRowsPerStatement()).isEqualTo(600);
+        assertThat(adaptiveBatchSizer.getRowsPerSecond()).isEqualTo(10_000);
+    }
+
+    @Test
+    void observe_WhenStatementIsSlow_ShouldDecreaseMultiplicativelyAndAlignToStep() {
+        adaptiveBatchSizer.observe(500, TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertThat(adaptiveBatchSizer.getRowsPerStatement()).isEqualTo(200);
+    }
+
+    @Test
+    void observe_ShouldStayWithinConfiguredBounds() {
+        for (int i = 0; i < 20; i++) {
+            adaptiveBatchSizer.observe(1000, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        assertThat(adaptiveBatchSizer.getRowsPerStatement()).isEqualTo(1000);
+
+        for (int i = 0; i < 20; i++) {
+            adaptiveBatchSizer.observe(1000, TimeUnit.SECONDS.toNanos(1));
+        }
+        assertThat(adaptiveBatchSizer.getRowsPerStatement()).isEqualTo(100);
+    }
+
+    @Test
+    void constructor_ShouldRegisterBatchSizeAndThroughputGauges() {
+        adaptiveBatchSizer.observe(500, TimeUnit.MILLISECONDS.toNanos(50));
+
+        assertThat(meterRegistry.get("kid.import.batch.size").gauge().value()).isEqualTo(600);
+        assertThat(meterRegistry.get("kid.import.rows.per.second").gauge().value()).isEqualTo(10_000);
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import io.github.Piotr7421.giftapi.exceptions.ImportAlreadyRunningException;
+import io.github.Piotr7421.giftapi.exceptions.ImportCancelledException;
+import io.github.Piotr7421.giftapi.importer.model.ImportJob;
+import io.github.Piotr7421.giftapi.importer.model.ImportProgress;
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+import io.github.Piotr7421.giftapi.model.ImportCheckpoint;
+import io.github.Piotr7421.giftapi.repository.ImportCheckpointRepository;
+import io.github.Piotr7421.giftapi.repository.KidRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+
+@SpringBootTest(properties = {"jdbc.batch-size=2", "jdbc.commit-interval=2"})
+@ActiveProfiles("test")
+class ChunkedKidsImporterTest {
+
+    private static final int NUMBER_OF_KIDS = 9;
+
+    @Autowired
+    private ChunkedKidsImporter chunkedKidsImporter;
+
+    @Autowired
+    private ImportCheckpointRepository importCheckpointRepository;
+
+    @Autowired
+    private KidRepository kidRepository;
+
+    @MockitoSpyBean
+    private KidBatchWriter kidBatchWriter;
+
+    @TempDir
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        kidRepository.deleteAll();
+        importCheckpointRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        kidRepository.deleteAll();
+        importCheckpointRepository.deleteAll();
+    }
+
+    @Test
+    void importKids_ShouldCommitEveryRowAndRemoveCheckpoint() throws IOException {
+        Path csv = writeCsv();
+
+        long rows = chunkedKidsImporter.importKids(csv, ImportProgress.NONE);
+
+        assertThat(rows).isEqualTo(NUMBER_OF_KIDS);
+        assertThat(kidRepository.count()).isEqualTo(NUMBER_OF_KIDS);
+        assertThat(importCheckpointRepository.count()).isZero();
+    }
+
+    @Test
+    void importKids_WhenRetriedAfterFailure_ShouldResumeFromCheckpoint() throws IOException {
+        Path csv = writeCsv();
+        // the third batch belongs to the second commit, so only the first commit survives
+        doCallRealMethod().doCallRealMethod()
+                .doThrow(new IllegalStateException("connection lost"))
+                .doCallRealMethod()
+                .when(kidBatchWriter).write(any(KidBatch.class), any());
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> chunkedKidsImporter.importKids(csv, ImportProgress.NONE));
+
+        List<ImportCheckpoint> checkpoints = importCheckpointRepository.findAll();
+        assertThat(checkpoints).hasSize(1);
+        assertThat(checkpoints.get(0).getRowsCommitted()).isEqualTo(4);
+        assertThat(checkpoints.get(0).getJobId()).isNull();
+        assertThat(kidRepository.count()).isEqualTo(4);
+
+        long rows = chunkedKidsImporter.importKids(csv, ImportProgress.NONE);
+
+        assertThat(rows).isEqualTo(NUMBER_OF_KIDS);
+        assertThat(kidRepository.count()).isEqualTo(NUMBER_OF_KIDS);
+        assertThat(importCheckpointRepository.count()).isZero();
+    }
+
+    @Test
+    void importKids_WhenCancelled_ShouldKeepCheckpointOfCommittedRows() throws IOException {
+        Path csv = writeCsv();
+        ImportJob job = new ImportJob("kids.csv", Files.size(csv));
+        doCallRealMethod().doCallRealMethod()
+                .doAnswer(invocation -> {
+                    job.cancel();
+                    return invocation.callRealMethod();
+                })
+                .when(kidBatchWriter).write(any(KidBatch.class), any());
+
+        assertThatExceptionOfType(ImportCancelledException.class)
+                .isThrownBy(() -> chunkedKidsImporter.importKids(csv, job));
+
+        assertThat(kidRepository.count()).isEqualTo(4);
+        assertThat(importCheckpointRepository.findAll())
+                .extracting(ImportCheckpoint::getRowsCommitted)
+                .containsExactly(4L);
+    }
+
+    @Test
+    void importKids_WhenSameFileIsBeingImported_ShouldRejectSecondImport() throws IOException {
+        Path csv = writeCsv();
+        ImportCheckpoint checkpoint = failAfterFirstCommit(csv);
+        checkpoint.setJobId(UUID.randomUUID().toString());
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        importCheckpointRepository.save(checkpoint);
+
+        assertThatExceptionOfType(ImportAlreadyRunningException.class)
+                .isThrownBy(() -> chunkedKidsImporter.importKids(csv, ImportProgress.NONE))
+                .withMessage("File kids.csv is already being imported");
+
+        assertThat(kidRepository.count()).isEqualTo(4);
+        assertThat(importCheckpointRepository.findAll())
+                .extracting(ImportCheckpoint::getJobId)
+                .containsExactly(checkpoint.getJobId());
+    }
+
+    @Test
+    void importKids_WhenHolderStoppedAdvancingCheckpoint_ShouldTakeItOver() throws IOException {
+        Path csv = writeCsv();
+        ImportCheckpoint checkpoint = failAfterFirstCommit(csv);
+        checkpoint.setJobId(UUID.randomUUID().toString());
+        checkpoint.setUpdatedAt(LocalDateTime.now().minusHours(1));
+        importCheckpointRepository.save(checkpoint);
+
+        long rows = chunkedKidsImporter.importKids(csv, ImportProgress.NONE);
+
+        assertThat(rows).isEqualTo(NUMBER_OF_KIDS);
+        assertThat(kidRepository.count()).isEqualTo(NUMBER_OF_KIDS);
+        assertThat(importCheckpointRepository.count()).isZero();
+    }
+
+    private ImportCheckpoint failAfterFirstCommit(Path csv) {
+        doCallRealMethod().doCallRealMethod()
+                .doThrow(new IllegalStateException("connection lost"))
+                .doCallRealMethod()
+                .when(kidBatchWriter).write(any(KidBatch.class), any());
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> chunkedKidsImporter.importKids(csv, ImportProgress.NONE));
+        return importCheckpointRepository.findAll().get(0);
+    }
+
+    private Path writeCsv() throws IOException {
+        Path csv = tempDir.resolve("kids.csv");
+        Files.writeString(csv, "firstName,lastName,birthDate\n" + String.join("\n", IntStream.rangeClosed(1, NUMBER_OF_KIDS)
+                .mapToObj(i -> "Kid" + i + ",Surname" + i + ",2010-01-0" + i)
+                .toList()) + "\n");
+        return csv;
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+import io.github.Piotr7421.giftapi.model.Kid;
+import io.github.Piotr7421.giftapi.repository.IdSequenceRepository;
+import io.github.Piotr7421.giftapi.repository.KidRepository;
+import io.github.Piotr7421.giftapi.strategy.BoyCreationStrategy;
+import io.github.Piotr7421.giftapi.strategy.GirlCreationStrategy;
+import io.github.Piotr7421.giftapi.strategy.model.Boy;
+import io.github.Piotr7421.giftapi.strategy.model.Girl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportEngineComparisonTest {
+
+    // throughput of the engines is measured by KidBatchWriterBenchmark, this test only compares what they write
+    private static final int BATCH_SIZE = 200;
+    private static final int BATCH_COUNT = 3;
+    private static final List<KidBatch> BATCHES = new ArrayList<>();
+    private static final List<Tuple> EXPECTED_KIDS = new ArrayList<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ImportRejectWriter importRejectWriter;
+
+    @Autowired
+    private AdaptiveBatchSizer adaptiveBatchSizer;
+
+    @Autowired
+    private IdSequenceRepository idSequenceRepository;
+
+    @Autowired
+    private KidRepository kidRepository;
+
+    @BeforeAll
+    static void parseReferenceFile() throws IOException {
+        byte[] content = new ClassPathResource("plik.csv").getContentAsByteArray();
+        int header = new String(content, 0, 64).indexOf('\n') + 1;
+        KidCsvParser parser = new KidCsvParser()
+                .reset(ByteBuffer.wrap(content, header, content.length - header).slice(), header, KidCsvParser.FIRST_DATA_LINE);
+        while (BATCHES.size() < BATCH_COUNT && parser.hasRemaining()) {
+            KidBatch batch = new KidBatch(BATCH_SIZE);
+            parser.parseInto(batch);
+            BATCHES.add(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                EXPECTED_KIDS.add(tuple(batch.getFirstName(i), batch.getLastName(i), batch.getBirthDate(i)));
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        kidRepository.deleteAllInBatch();
+    }
+
+    @AfterEach
+    void tearDown() {
+        kidRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void jdbcBatchEngine_ShouldImportReferenceFile() {
+        load(new JdbcBatchKidWriter(jdbcTemplate, importRejectWriter, idSequenceRepository));
+    }
+
+    @Test
+    void multiRowEngine_ShouldImportReferenceFile() {
+        load(new MultiRowKidWriter(jdbcTemplate, importRejectWriter, adaptiveBatchSizer, idSequenceRepository));
+    }
+
+    @Test
+    void bulkLoadEngine_ShouldImportReferenceFileLikeJdbcBatchEngine() {
+        load(new H2CsvReadKidWriter(jdbcTemplate, importRejectWriter, idSequenceRepository));
+
+        assertThat(kidRepository.findAll()).extracting(Kid::getVersion).containsOnly(0);
+    }
+
+    @Test
+    void bulkLoadEngine_ShouldKeepQuotesAndCommasInNames() {
+        KidBatch batch = new KidBatch(1);
+        batch.add("Anna, Maria", "O\"Neil", LocalDate.of(2012, 8, 22));
+
+        new H2CsvReadKidWriter(jdbcTemplate, importRejectWriter, idSequenceRepository).write(batch, null);
+
+        assertThat(kidRepository.findAll())
+                .extracting(Kid::getFirstName, Kid::getLastName)
+                .containsExactly(tuple("Anna, Maria", "O\"Neil"));
+    }
+
+    @Test
+    void everyEngine_ShouldWriteKidsOfEveryTypeInOneBatch() {
+        List<KidBatchWriter> writers = List.of(
+                new JdbcBatchKidWriter(jdbcTemplate, importRejectWriter, idSequenceRepository),
+                new MultiRowKidWriter(jdbcTemplate, importRejectWriter, adaptiveBatchSizer, idSequenceRepository),
+                new H2CsvReadKidWriter(jdbcTemplate, importRejectWriter, idSequenceRepository));
+        KidBatch batch = new KidBatch(4);
+        batch.add("Jan", "Kowalski", LocalDate.of(2010, 5, 15), new BoyCreationStrategy(), 92);
+        batch.add("Anna", "Nowak", LocalDate.of(2012, 8, 22), new GirlCreationStrategy(), "red, dark");
+        batch.add("Ola", "Lis", LocalDate.of(2011, 1, 1), new GirlCreationStrategy(), null);
+        batch.add("Piotr", "Lis", LocalDate.of(2013, 3, 3));
+
+        for (KidBatchWriter writer : writers) {
+            kidRepository.deleteAllInBatch();
+            writer.write(batch, null);
+
+            assertThat(kidRepository.findAll())
+                    .extracting(Kid::getFirstName, Kid::getClass,
+                            kid -> kid instanceof Boy boy ? boy.getPantsLength() : null,
+                            kid -> kid instanceof Girl girl ? girl.getSkirtColor() : null)
+                    .containsExactlyInAnyOrder(
+                            tuple("Jan", Boy.class, 92, null),
+                            tuple("Anna", Girl.class, null, "red, dark"),
+                            tuple("Ola", Girl.class, null, null),
+                            tuple("Piotr", Kid.class, null, null));
+        }
+    }
+
+    private void load(KidBatchWriter writer) {
+        for (KidBatch batch : BATCHES) {
+            writer.write(batch, null);
+        }
+        assertThat(kidRepository.findAll())
+                .hasSize(BATCH_SIZE * BATCH_COUNT)
+                .extracting(Kid::getFirstName, Kid::getLastName, Kid::getBirthDate)
+                .containsExactlyInAnyOrderElementsOf(EXPECTED_KIDS);
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+import io.github.Piotr7421.giftapi.importer.model.KidReject;
+import io.github.Piotr7421.giftapi.strategy.BoyCreationStrategy;
+import io.github.Piotr7421.giftapi.strategy.GirlCreationStrategy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class KidCsvParserTest {
+
+    private final KidCsvParser parser = new KidCsvParser();
+
+    @Test
+    void parseInto_ShouldMatchSplitBasedParsingOfReferenceFile() throws IOException {
+        byte[] content = new ClassPathResource("plik.csv").getContentAsByteArray();
+        String text = new String(content, StandardCharsets.UTF_8);
+        List<String> lines = text.lines().skip(1).toList();
+        int header = text.indexOf('\n') + 1;
+        parser.reset(ByteBuffer.wrap(content, header, content.length - header).slice(), header, KidCsvParser.FIRST_DATA_LINE);
+        KidBatch batch = new KidBatch(1000);
+
+        int row = 0;
+        while (parser.hasRemaining()) {
+            parser.parseInto(batch);
+            for (int i = 0; i < batch.size(); i++, row++) {
+                String[] params = lines.get(row).split(",");
+                assertThat(batch.getFirstName(i)).isEqualTo(params[0]);
+                assertThat(batch.getLastName(i)).isEqualTo(params[1]);
+                assertThat(batch.getBirthDate(i)).isEqualTo(LocalDate.parse(params[2]));
+            }
+            batch.clear();
+        }
+
+        assertThat(row).isEqualTo(lines.size());
+    }
+
+    @Test
+    void parseInto_ShouldHandleQuotedFieldsAndCrLf() {
+        KidBatch batch = parse("\"Anna, Maria\",\"O\"\"Neil\",2012-08-22\r\n\r\nJan,Kowalski,2010-05-15\r\n");
+
+        assertThat(batch.size()).isEqualTo(2);
+        assertThat(batch.getFirstName(0)).isEqualTo("Anna, Maria");
+        assertThat(batch.getLastName(0)).isEqualTo("O\"Neil");
+        assertThat(batch.getBirthDate(0)).isEqualTo(LocalDate.of(2012, 8, 22));
+        assertThat(batch.getLastName(1)).isEqualTo("Kowalski");
+        assertThat(batch.getBirthDate(1)).isEqualTo(LocalDate.of(2010, 5, 15));
+    }
+
+    @Test
+    void parseInto_WhenLastLineHasNoLineFeed_ShouldParseIt() {
+        KidBatch batch = parse("Jan,Kowalski,2010-05-15");
+
+        assertThat(batch.size()).isEqualTo(1);
+        assertThat(batch.getBirthDate(0)).isEqualTo(LocalDate.of(2010, 5, 15));
+    }
+
+    @Test
+    void parseInto_WhenRecordsAreInvalid_ShouldRejectThemAndKeepValidRows() {
+        String tooLong = "x".repeat(51);
+        KidBatch batch = parse("""
+                Jan,Kowalski,2010-05-15
+                malformed
+                Anna,Nowak,2010-02-30
+                Piotr,Lis,15.05.2010
+
+                ,Empty,2010-01-01
+                Ola,%s,2011-01-01
+                "Ewa\nMaria",Lis,2012-01-01
+                Zosia,"Lis"x,2012-01-01
+                Tomek,Nowak,2013-03-03
+                """.formatted(tooLong));
+
+        assertThat(batch.size()).isEqualTo(3);
+        assertThat(batch.getFirstName(0)).isEqualTo("Jan");
+        assertThat(batch.getFirstName(1)).isEqualTo("Ewa\nMaria");
+        assertThat(batch.getFirstName(2)).isEqualTo("Tomek");
+        assertThat(batch.getRejects())
+                .extracting(KidReject::lineNumber, KidReject::reason, KidReject::content)
+                .containsExactly(
+                        tuple(3L, "missing fields", "malformed"),
+                        tuple(4L, "birth date does not exist", "Anna,Nowak,2010-02-30"),
+                        tuple(5L, "birth date is not in yyyy-MM-dd format", "Piotr,Lis,15.05.2010"),
+                        tuple(7L, "first name is empty", ",Empty,2010-01-01"),
+                        tuple(8L, "last name is longer than 50 characters", "Ola," + tooLong + ",2011-01-01"),
+                        tuple(11L, "unexpected character after closing quote", "Zosia,\"Lis\"x,2012-01-01"));
+        assertThat(batch.getRejects().get(0).byteOffset()).isEqualTo(24);
+        assertThat(parser.line()).isEqualTo(13);
+    }
+
+    @Test
+    void parseInto_WhenRejectedRecordHasQuotedLineFeedsAfterTheBadField_ShouldSkipTheWholeRecord() {
+        KidBatch batch = parse("""
+                Anna,Nowak,2010-02-30,"GIRL
+                Jan,Kowalski,2010-05-15",red
+                Tomek,Nowak,2013-03-03
+                """);
+
+        assertThat(batch.size()).isEqualTo(1);
+        assertThat(batch.getFirstName(0)).isEqualTo("Tomek");
+        assertThat(batch.getRejects())
+                .extracting(KidReject::lineNumber, KidReject::reason, KidReject::content)
+                .containsExactly(tuple(2L, "birth date does not exist",
+                        "Anna,Nowak,2010-02-30,\"GIRL\nJan,Kowalski,2010-05-15\",red"));
+        assertThat(parser.line()).isEqualTo(5);
+    }
+
+    @Test
+    void parseInto_WithTypeColumn_ShouldRouteRowsToTheirStrategy() {
+        BoyCreationStrategy boyStrategy = new BoyCreationStrategy();
+        GirlCreationStrategy girlStrategy = new GirlCreationStrategy();
+        KidCsvParser typedParser = new KidCsvParser(List.of(boyStrategy, girlStrategy));
+        KidBatch batch = new KidBatch(10);
+        typedParser.reset(ByteBuffer.wrap("""
+                Jan,Kowalski,2010-05-15,BOY,92,,7
+                Anna,Nowak,2012-08-22,GIRL,,red
+                Ola,Lis,2011-01-01,GIRL
+                Piotr,Lis,2013-03-03
+                Ewa,Lis,2013-03-03,,,
+                Tomek,Nowak,2013-03-03,BOY,tall
+                Zosia,Nowak,2013-03-03,BOY
+                Kasia,Nowak,2013-03-03,DOG,1
+                """.getBytes(StandardCharsets.UTF_8)), 0, KidCsvParser.FIRST_DATA_LINE);
+
+        typedParser.parseInto(batch);
+
+        assertThat(IntStream.range(0, batch.size()).boxed().toList())
+                .extracting(batch::getFirstName, batch::getStrategy, batch::getSubtypeValue)
+                .containsExactly(
+                        tuple("Jan", boyStrategy, 92),
+                        tuple("Anna", girlStrategy, "red"),
+                        tuple("Ola", girlStrategy, null),
+                        tuple("Piotr", null, null),
+                        tuple("Ewa", null, null));
+        assertThat(batch.getRejects())
+                .extracting(KidReject::lineNumber, KidReject::reason)
+                .containsExactly(
+                        tuple(7L, "pants length is not a number"),
+                        tuple(8L, "pants length is empty"),
+                        tuple(9L, "kid type is unknown"));
+    }
+
+    @Test
+    void parseInto_WithoutStrategies_ShouldRejectTypedRows() {
+        KidBatch batch = parse("Jan,Kowalski,2010-05-15,BOY,92\n");
+
+        assertThat(batch.size()).isZero();
+        assertThat(batch.getRejects()).extracting(KidReject::reason).containsExactly("kid type is unknown");
+    }
+
+    @Test
+    void parseInto_ShouldCountRejectsTowardsBatchCapacity() {
+        KidBatch batch = new KidBatch(2);
+        parser.reset(ByteBuffer.wrap("bad\nbad\nJan,Kowalski,2010-05-15\n".getBytes(StandardCharsets.UTF_8)), 0, 2);
+
+        assertThat(parser.parseInto(batch)).isZero();
+        assertThat(batch.isFull()).isTrue();
+        assertThat(parser.hasRemaining()).isTrue();
+    }
+
+    private KidBatch parse(String csv) {
+        KidBatch batch = new KidBatch(10);
+        parser.reset(ByteBuffer.wrap(csv.getBytes(StandardCharsets.UTF_8)), 0, KidCsvParser.FIRST_DATA_LINE);
+        parser.parseInto(batch);
+        return batch;
+    }
+}
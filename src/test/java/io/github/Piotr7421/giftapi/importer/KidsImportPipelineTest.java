@@ -0,0 +1,222 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import io.github.Piotr7421.giftapi.exceptions.ImportCancelledException;
+import io.github.Piotr7421.giftapi.importer.model.FilePartition;
+import io.github.Piotr7421.giftapi.importer.model.ImportJob;
+import io.github.Piotr7421.giftapi.importer.model.ImportProgress;
+import io.github.Piotr7421.giftapi.importer.model.ImportStage;
+import io.github.Piotr7421.giftapi.importer.model.ImportStatistics;
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+import io.github.Piotr7421.giftapi.importer.model.KidReject;
+import io.github.Piotr7421.giftapi.properties.AsyncTaskExecutorProperties;
+import io.github.Piotr7421.giftapi.properties.JdbcProperties;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class KidsImportPipelineTest {
+
+    private static final int NUMBER_OF_KIDS = 25;
+
+    @Mock
+    private KidBatchWriter kidBatchWriter;
+
+    @TempDir
+    private Path tempDir;
+
+    private KidsImportPipeline pipeline;
+    private final Queue<String> insertedFirstNames = new ConcurrentLinkedQueue<>();
+    private final Queue<KidReject> rejects = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        JdbcProperties jdbcProperties = new JdbcProperties();
+        jdbcProperties.setBatchSize(4);
+        jdbcProperties.setWriterThreads(2);
+
+        AsyncTaskExecutorProperties taskExecutorProperties = new AsyncTaskExecutorProperties();
+        taskExecutorProperties.setThreadNamePrefix("test-");
+        taskExecutorProperties.setReaderThreads(3);
+        taskExecutorProperties.setParserThreads(2);
+        taskExecutorProperties.setPipelineQueueCapacity(2);
+
+        pipeline = new KidsImportPipeline(kidBatchWriter, jdbcProperties, taskExecutorProperties, List.of());
+    }
+
+    @Test
+    void importKids_ShouldInsertEveryRowExactlyOnce() throws IOException {
+        Path csv = writeCsv(IntStream.rangeClosed(1, NUMBER_OF_KIDS)
+                .mapToObj(i -> "Kid" + i + ",Surname" + i + ",2010-01-" + String.format("%02d", (i % 28) + 1))
+                .toList());
+        recordInsertedFirstNames();
+
+        ImportStatistics statistics = pipeline.importKids(csv, ImportProgress.NONE);
+
+        assertThat(insertedFirstNames)
+                .containsExactlyInAnyOrderElementsOf(IntStream.rangeClosed(1, NUMBER_OF_KIDS)
+                        .mapToObj(i -> "Kid" + i)
+                        .collect(Collectors.toList()));
+        assertThat(statistics.getRows(ImportStage.READ)).isEqualTo(NUMBER_OF_KIDS);
+        assertThat(statistics.getRows(ImportStage.PARSE)).isEqualTo(NUMBER_OF_KIDS);
+        assertThat(statistics.getRows(ImportStage.WRITE)).isEqualTo(NUMBER_OF_KIDS);
+    }
+
+    @Test
+    void importKids_FromStream_ShouldInsertEveryRowExactlyOnce() throws IOException {
+        Path csv = writeCsv(IntStream.rangeClosed(1, NUMBER_OF_KIDS)
+                .mapToObj(i -> "Kid" + i + ",\"Surname, " + i + "\",2010-01-01")
+                .toList());
+        recordInsertedFirstNames();
+
+        ImportStatistics statistics;
+        try (InputStream csvStream = Files.newInputStream(csv)) {
+            statistics = pipeline.importKids(csvStream, ImportProgress.NONE);
+        }
+
+        assertThat(insertedFirstNames)
+                .containsExactlyInAnyOrderElementsOf(IntStream.rangeClosed(1, NUMBER_OF_KIDS)
+                        .mapToObj(i -> "Kid" + i)
+                        .collect(Collectors.toList()));
+        assertThat(statistics.getRows(ImportStage.WRITE)).isEqualTo(NUMBER_OF_KIDS);
+    }
+
+    @Test
+    void importKids_WhenLinesAreMalformed_ShouldRejectThemWithAbsoluteLineNumbers() throws IOException {
+        Path csv = writeCsv(IntStream.rangeClosed(1, NUMBER_OF_KIDS)
+                .mapToObj(i -> i % 10 == 0 ? "malformed" + i : "Kid" + i + ",Surname" + i + ",2010-01-01")
+                .toList());
+        recordInsertedFirstNames();
+        ImportJob job = new ImportJob("kids.csv", Files.size(csv));
+
+        pipeline.importKids(csv, job);
+
+        assertThat(insertedFirstNames).hasSize(NUMBER_OF_KIDS - 2);
+        assertThat(rejects)
+                .extracting(KidReject::lineNumber, KidReject::content)
+                .containsExactlyInAnyOrder(tuple(11L, "malformed10"), tuple(21L, "malformed20"));
+        assertThat(job.getRowsRejected().sum()).isEqualTo(2);
+    }
+
+    @Test
+    void importKids_WhenJobIsCancelled_ShouldStopBetweenBatches() throws IOException {
+        Path csv = writeCsv(List.of("Jan,Kowalski,2010-05-15", "Anna,Nowak,2012-08-22"));
+        ImportJob job = new ImportJob("kids.csv", Files.size(csv));
+        job.cancel();
+
+        assertThatExceptionOfType(ImportCancelledException.class)
+                .isThrownBy(() -> pipeline.importKids(csv, job));
+        verifyNoInteractions(kidBatchWriter);
+    }
+
+    @Test
+    void importKids_WhenWriterFails_ShouldReturnOnlyAfterRunningWritesFinish() throws IOException {
+        Path csv = writeCsv(IntStream.rangeClosed(1, NUMBER_OF_KIDS)
+                .mapToObj(i -> "Kid" + i + ",Surname" + i + ",2010-01-01")
+                .toList());
+        CountDownLatch slowWriteStarted = new CountDownLatch(1);
+        AtomicInteger writes = new AtomicInteger();
+        AtomicBoolean slowWriteFinished = new AtomicBoolean();
+        doAnswer(invocation -> {
+            int write = writes.incrementAndGet();
+            if (write == 1) {
+                // like a running JDBC batch, the write ignores the interrupt of the failing pipeline
+                slowWriteStarted.countDown();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+                while (System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(deadline - System.nanoTime());
+                }
+                slowWriteFinished.set(true);
+            } else if (write == 2) {
+                slowWriteStarted.await();
+                throw new IllegalStateException("connection lost");
+            }
+            return null;
+        }).when(kidBatchWriter).write(any(KidBatch.class), any());
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> pipeline.importKids(csv, ImportProgress.NONE))
+                .withMessageContaining("connection lost");
+        assertThat(slowWriteFinished).isTrue();
+    }
+
+    @Test
+    void split_ShouldAlignPartitionsToLineBoundaries() throws IOException {
+        Path csv = writeCsv(List.of("Jan,Kowalski,2010-05-15", "Anna,Nowak,2012-08-22", "Piotr,Lis,2009-12-03"));
+        byte[] content = Files.readAllBytes(csv);
+
+        List<FilePartition> partitions = FilePartition.split(csv, 2);
+
+        assertThat(partitions).hasSize(2);
+        assertThat(partitions.get(0).start()).isEqualTo("firstName,lastName,birthDate\n".length());
+        assertThat(partitions.get(1).end()).isEqualTo(content.length);
+        assertThat(content[(int) partitions.get(1).start() - 1]).isEqualTo((byte) '\n');
+    }
+
+    @Test
+    void split_WhenQuotedFieldHoldsLineFeedsAtSplitPoint_ShouldNotCutInsideIt() throws IOException {
+        Path csv = writeCsv(List.of("Jan,Kowalski,2010-05-15", "Anna,\"" + "Nowak\n".repeat(8) + "\",2012-08-22", "Piotr,Lis,2009-12-03"));
+        String content = Files.readString(csv);
+
+        List<FilePartition> partitions = FilePartition.split(csv, 2);
+
+        assertThat(partitions).extracting(FilePartition::start)
+                .containsExactly((long) content.indexOf("Jan"), (long) content.indexOf("Piotr"));
+    }
+
+    @Test
+    void importKids_WhenQuotedFieldsHoldLineFeeds_ShouldParseLikeOnePartition() throws IOException {
+        Path csv = writeCsv(List.of("Jan,\"Ko\nwal\nski\",2010-05-15", "Anna,\"" + "Nowak\n".repeat(8) + "\",2012-08-22",
+                "Piotr,\"Li\ns\",2009-12-03"));
+        recordInsertedFirstNames();
+
+        ImportStatistics statistics = pipeline.importKids(csv, ImportProgress.NONE);
+
+        assertThat(insertedFirstNames).containsExactlyInAnyOrder("Jan", "Anna", "Piotr");
+        assertThat(rejects).isEmpty();
+        assertThat(statistics.getRows(ImportStage.READ)).isEqualTo(3);
+    }
+
+    private void recordInsertedFirstNames() {
+        // batches are reused once written, so their content has to be copied inside the answer
+        doAnswer(invocation -> {
+            KidBatch batch = invocation.getArgument(0);
+            for (int i = 0; i < batch.size(); i++) {
+                insertedFirstNames.add(batch.getFirstName(i));
+            }
+            rejects.addAll(batch.getRejects());
+            return null;
+        }).when(kidBatchWriter).write(any(KidBatch.class), any());
+    }
+
+    private Path writeCsv(List<String> rows) throws IOException {
+        Path csv = tempDir.resolve("kids.csv");
+        Files.writeString(csv, "firstName,lastName,birthDate\n" + String.join("\n", rows) + "\n");
+        return csv;
+    }
+}
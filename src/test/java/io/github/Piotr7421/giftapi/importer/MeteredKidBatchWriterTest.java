@@ -0,0 +1,60 @@
+package io.github.Piotr7421.giftapi.importer;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MeteredKidBatchWriterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final KidBatchWriter delegate = mock(KidBatchWriter.class);
+    private final MeteredKidBatchWriter meteredKidBatchWriter = new MeteredKidBatchWriter(delegate, meterRegistry);
+
+    @Test
+    void write_ShouldDelegateAndRecordBatchLatencyAndRows() {
+        KidBatch batch = batch(3);
+        UUID importId = UUID.randomUUID();
+
+        meteredKidBatchWriter.write(batch, importId);
+        meteredKidBatchWriter.write(batch, importId);
+
+        verify(delegate, times(2)).write(batch, importId);
+        Timer latency = meterRegistry.get("kid.import.batch.latency").timer();
+        assertThat(latency.count()).isEqualTo(2);
+        assertThat(latency.totalTime(TimeUnit.NANOSECONDS)).isPositive();
+        assertThat(meterRegistry.get("kid.import.rows").counter().count()).isEqualTo(6);
+        assertThat(meterRegistry.get("kid.import.batch.rows.per.second").gauge().value()).isPositive();
+    }
+
+    @Test
+    void write_WhenDelegateFails_ShouldNotCountRows() {
+        doThrow(new IllegalStateException("boom")).when(delegate).write(any(), any());
+
+        assertThatThrownBy(() -> meteredKidBatchWriter.write(batch(3), UUID.randomUUID()))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get("kid.import.rows").counter().count()).isZero();
+        assertThat(meterRegistry.get("kid.import.batch.latency").timer().count()).isZero();
+    }
+
+    private static KidBatch batch(int kids) {
+        KidBatch batch = new KidBatch(kids);
+        for (int i = 0; i < kids; i++) {
+            batch.add("Kid" + i, "Lee", LocalDate.of(2015, 1, 1));
+        }
+        return batch;
+    }
+}
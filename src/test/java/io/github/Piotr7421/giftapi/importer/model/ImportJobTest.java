@@ -0,0 +1,20 @@
+package io.github.Piotr7421.giftapi.importer.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportJobTest {
+
+    @Test
+    void start_WhenCancelledWhileQueued_ShouldNotStartOrRecordStartTime() {
+        ImportJob job = new ImportJob("kids.csv", 100);
+
+        job.cancel();
+
+        assertThat(job.start()).isFalse();
+        assertThat(job.getStatus()).isEqualTo(ImportJobStatus.CANCELLED);
+        assertThat(job.getStartNanos()).isZero();
+        assertThat(job.getElapsedMillis()).isZero();
+    }
+}
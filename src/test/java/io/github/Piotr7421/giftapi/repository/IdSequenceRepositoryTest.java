@@ -0,0 +1,73 @@
+package io.github.Piotr7421.giftapi.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import io.github.Piotr7421.giftapi.importer.KidBatchWriter;
+import io.github.Piotr7421.giftapi.importer.model.KidBatch;
+import io.github.Piotr7421.giftapi.model.Kid;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdSequenceRepositoryTest {
+
+    @Autowired
+    private IdSequenceRepository idSequenceRepository;
+    @Autowired
+    private KidBatchWriter kidBatchWriter;
+    @Autowired
+    private KidRepository kidRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        kidRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void reserve_ShouldHandOutConsecutiveDisjointBlocks() {
+        long first = idSequenceRepository.reserve(IdSequenceRepository.GIFT_SEQUENCE, 10);
+        long second = idSequenceRepository.reserve(IdSequenceRepository.GIFT_SEQUENCE, 5);
+
+        assertThat(second).isEqualTo(first + 10);
+        assertThat(jdbcTemplate.queryForObject("SELECT next_val FROM id_sequence WHERE sequence_name = 'gift'", Long.class))
+                .isEqualTo(second + 5);
+    }
+
+    @Test
+    void jpaAndJdbcInserts_ShouldShareTheKidSequenceWithoutCollisions() {
+        List<Kid> kids = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            kids.add(kid("Jpa" + i));
+        }
+        KidBatch batch = new KidBatch(100);
+        for (int i = 0; i < 100; i++) {
+            batch.add("Jdbc" + i, "Kowalski", LocalDate.of(2012, 4, 21));
+        }
+
+        kidRepository.saveAll(kids.subList(0, 30));
+        kidBatchWriter.write(batch, null);
+        kidRepository.saveAll(kids.subList(30, 60));
+
+        assertThat(kidRepository.count()).isEqualTo(160);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT id) FROM kid", Long.class)).isEqualTo(160);
+    }
+
+    private static Kid kid(String firstName) {
+        return Kid.builder()
+                .firstName(firstName)
+                .lastName("Kowalski")
+                .birthDate(LocalDate.of(2012, 4, 21))
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.Piotr7421.giftapi.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import io.github.Piotr7421.giftapi.model.Gift;
+import io.github.Piotr7421.giftapi.model.ImportReject;
+import io.github.Piotr7421.giftapi.model.Kid;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs every keyed repository query, captures the SQL Hibernate sends and fails if its plan reads a
+// whole table. findAllDtos and findAllIds page over all kids by design and are left out. Parameters
+// are inlined as '1', which both H2 and MySQL convert to the column type without losing the index.
+@SpringBootTest
+@ActiveProfiles("test")
+class QueryPlanTest {
+
+    private static final String IMPORT_ID = "00000000-0000-0000-0000-000000000001";
+
+    @Autowired
+    private KidRepository kidRepository;
+    @Autowired
+    private GiftRepository giftRepository;
+    @Autowired
+    private ImportRejectRepository importRejectRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private int kidId;
+    private int giftId;
+
+    @BeforeEach
+    void setUp() {
+        Kid kid = kidRepository.save(Kid.builder()
+                .firstName("Jan")
+                .lastName("Kowalski")
+                .birthDate(LocalDate.of(2012, 4, 21))
+                .build());
+        Gift gift = giftRepository.save(Gift.builder()
+                .name("Lego")
+                .price(199.99)
+                .kid(kid)
+                .build());
+        importRejectRepository.save(ImportReject.builder()
+                .importId(IMPORT_ID)
+                .lineNumber(2)
+                .reason("missing fields")
+                .build());
+        kidId = kid.getId();
+        giftId = gift.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        importRejectRepository.deleteAll();
+        giftRepository.deleteAll();
+        kidRepository.deleteAll();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueries_ShouldNotScanWholeTables() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("KidRepository.findById", () -> kidRepository.findById(kidId));
+        queries.put("KidRepository.findDtosAfter", () -> kidRepository.findDtosAfter(kidId, Limit.of(10)));
+        queries.put("KidRepository.findAllWithGiftsByIdIn", () -> kidRepository.findAllWithGiftsByIdIn(List.of(kidId, kidId + 1)));
+        queries.put("KidRepository.findWithGiftsById", () -> kidRepository.findWithGiftsById(kidId));
+        queries.put("KidRepository.findWithLockingById", () -> kidRepository.findWithLockingById(kidId));
+        queries.put("KidRepository.findGiftQuotaById", () -> kidRepository.findGiftQuotaById(kidId));
+        queries.put("KidRepository.incrementGiftCount", () -> kidRepository.incrementGiftCount(kidId, 3));
+        queries.put("KidRepository.compareAndIncrementGiftCount", () -> kidRepository.compareAndIncrementGiftCount(kidId, 0, 3));
+        queries.put("KidRepository.decrementGiftCount", () -> kidRepository.decrementGiftCount(kidId));
+        queries.put("KidRepository.deleteAllByIdIn", () -> kidRepository.deleteAllByIdIn(List.of(kidId, kidId + 1)));
+        // the second page makes Spring Data run the count query as well
+        queries.put("GiftRepository.findAllDtosByKidId", () -> giftRepository.findAllDtosByKidId(kidId, PageRequest.of(1, 1)));
+        queries.put("GiftRepository.findDtosByKidIdAfter", () -> giftRepository.findDtosByKidIdAfter(kidId, 0, Limit.of(10)));
+        queries.put("GiftRepository.findByIdAndKidId", () -> giftRepository.findByIdAndKidId(giftId, kidId));
+        queries.put("GiftRepository.findWithLockingByIdAndKidId", () -> giftRepository.findWithLockingByIdAndKidId(giftId, kidId));
+        queries.put("GiftRepository.deleteByIdAndKidId", () -> giftRepository.deleteByIdAndKidId(giftId, kidId));
+        queries.put("ImportRejectRepository.findDtosByImportIdAfter",
+                () -> importRejectRepository.findDtosByImportIdAfter(IMPORT_ID, 0, Limit.of(10)));
+
+        return queries.entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+                    List<String> statements = recordRolledBack(query.getValue());
+                    assertThat(statements).isNotEmpty();
+                    statements.forEach(sql -> assertThat(fullScans(sql))
+                            .as("plan of %s", sql)
+                            .isEmpty());
+                }));
+    }
+
+    private List<String> recordRolledBack(Runnable query) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        return RecordingStatementInspector.record(() -> transactionTemplate.executeWithoutResult(status -> {
+            query.run();
+            // derived deletes remove entities one by one, so their statements only appear on flush
+            giftRepository.flush();
+            status.setRollbackOnly();
+        }));
+    }
+
+    private List<String> fullScans(String sql) {
+        String explain = "EXPLAIN " + sql
+                .replaceAll("(?i)limit \\?\\s*,\\s*\\?", "limit 1, 1")
+                .replaceAll("(?i)(limit|offset|fetch first|fetch next) \\?", "$1 1")
+                .replace("?", "'1'");
+        return jdbcTemplate.execute((Connection connection) -> {
+            boolean mysql = connection.getMetaData().getDatabaseProductName().equals("MySQL");
+            try (Statement statement = connection.createStatement(); ResultSet plan = statement.executeQuery(explain)) {
+                List<String> scans = new ArrayList<>();
+                while (plan.next()) {
+                    if (mysql ? "ALL".equals(plan.getString("type")) : plan.getString(1).contains(".tableScan")) {
+                        scans.add(mysql ? plan.getString("table") : plan.getString(1));
+                    }
+                }
+                return scans;
+            }
+        });
+    }
+}
@@ -0,0 +1,159 @@
+package io.github.Piotr7421.giftapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import io.github.Piotr7421.giftapi.exceptions.KidLockTimeoutException;
+import io.github.Piotr7421.giftapi.exceptions.KidNotFoundException;
+import io.github.Piotr7421.giftapi.exceptions.KidOptimisticLockingException;
+import io.github.Piotr7421.giftapi.exceptions.ToManyGiftsException;
+import io.github.Piotr7421.giftapi.model.GiftConcurrencyMode;
+import io.github.Piotr7421.giftapi.model.KidGiftQuota;
+import io.github.Piotr7421.giftapi.properties.GiftProperties;
+import io.github.Piotr7421.giftapi.repository.KidRepository;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GiftQuotaServiceTest {
+
+    private static final int KID_ID = 1;
+
+    @Mock
+    private KidRepository kidRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private GiftProperties giftProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private GiftQuotaService giftQuotaService;
+
+    @BeforeEach
+    void setUp() {
+        giftProperties = new GiftProperties();
+        giftProperties.setRetryBackoffMillis(0);
+        meterRegistry = new SimpleMeterRegistry();
+        giftQuotaService = new GiftQuotaService(kidRepository, giftProperties, meterRegistry, transactionManager);
+    }
+
+    @Test
+    void reserve_WhenConditionalUpdateSucceeds_ShouldNotCheckKid() {
+        when(kidRepository.incrementGiftCount(KID_ID, 3)).thenReturn(1);
+
+        giftQuotaService.reserve(KID_ID, () -> "gift");
+
+        verify(kidRepository, never()).existsById(KID_ID);
+        assertThat(meterRegistry.get("gift.quota.lock.wait").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void reserve_WhenConditionalUpdateMissesExistingKid_ShouldThrowToManyGiftsException() {
+        when(kidRepository.incrementGiftCount(KID_ID, 3)).thenReturn(0);
+        when(kidRepository.existsById(KID_ID)).thenReturn(true);
+
+        assertThatExceptionOfType(ToManyGiftsException.class)
+                .isThrownBy(() -> giftQuotaService.reserve(KID_ID, () -> "gift"))
+                .withMessage("To many gifts for kid with id=1");
+    }
+
+    @Test
+    void reserve_WhenConditionalUpdateMissesKid_ShouldThrowKidNotFoundException() {
+        when(kidRepository.incrementGiftCount(KID_ID, 3)).thenReturn(0);
+        when(kidRepository.existsById(KID_ID)).thenReturn(false);
+
+        assertThatExceptionOfType(KidNotFoundException.class)
+                .isThrownBy(() -> giftQuotaService.reserve(KID_ID, () -> "gift"))
+                .withMessage("Kid with id=1 not found");
+    }
+
+    @Test
+    void reserve_WhenRowLockTimesOut_ShouldThrowKidLockTimeoutException() {
+        when(kidRepository.incrementGiftCount(KID_ID, 3))
+                .thenThrow(new PessimisticLockingFailureException("lock timeout"));
+
+        assertThatExceptionOfType(KidLockTimeoutException.class)
+                .isThrownBy(() -> giftQuotaService.reserve(KID_ID, () -> "gift"))
+                .withMessage("Could not acquire lock on kid - operation timed out");
+        assertThat(meterRegistry.get("gift.quota.lock.timeouts").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void reserve_WhenOptimisticConflict_ShouldRetryWithFreshVersion() {
+        giftProperties.setConcurrencyMode(GiftConcurrencyMode.OPTIMISTIC);
+        when(kidRepository.findGiftQuotaById(KID_ID)).thenReturn(quota(4, 1), quota(5, 2));
+        when(kidRepository.compareAndIncrementGiftCount(KID_ID, 4, 3)).thenReturn(0);
+        when(kidRepository.compareAndIncrementGiftCount(KID_ID, 5, 3)).thenReturn(1);
+        AtomicInteger writes = new AtomicInteger();
+
+        String written = giftQuotaService.reserve(KID_ID, () -> "gift" + writes.incrementAndGet());
+
+        assertThat(written).isEqualTo("gift1");
+        // one transaction per attempt, the lost attempt is over before the backoff
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(kidRepository, never()).incrementGiftCount(anyInt(), anyInt());
+        assertThat(meterRegistry.get("gift.quota.conflicts").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("gift.quota.retries").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void reserve_WhenOptimisticQuotaIsUsedUp_ShouldThrowToManyGiftsException() {
+        giftProperties.setConcurrencyMode(GiftConcurrencyMode.OPTIMISTIC);
+        when(kidRepository.findGiftQuotaById(KID_ID)).thenReturn(quota(7, 3));
+
+        assertThatExceptionOfType(ToManyGiftsException.class)
+                .isThrownBy(() -> giftQuotaService.reserve(KID_ID, () -> "gift"));
+
+        verify(kidRepository, never()).compareAndIncrementGiftCount(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void reserve_WhenOptimisticAttemptsExhausted_ShouldThrowKidOptimisticLockingException() {
+        giftProperties.setConcurrencyMode(GiftConcurrencyMode.OPTIMISTIC);
+        giftProperties.setMaxAttempts(3);
+        when(kidRepository.findGiftQuotaById(KID_ID)).thenReturn(quota(4, 1));
+        when(kidRepository.compareAndIncrementGiftCount(KID_ID, 4, 3)).thenReturn(0);
+
+        assertThatExceptionOfType(KidOptimisticLockingException.class)
+                .isThrownBy(() -> giftQuotaService.reserve(KID_ID, () -> "gift"))
+                .withMessage("Could not reserve gift for kid with id=1 after 3 attempts");
+
+        assertThat(meterRegistry.get("gift.quota.conflicts").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("gift.quota.retries").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void reserve_WhenOptimisticKidNotFound_ShouldThrowKidNotFoundException() {
+        giftProperties.setConcurrencyMode(GiftConcurrencyMode.OPTIMISTIC);
+        when(kidRepository.findGiftQuotaById(KID_ID)).thenReturn(Optional.empty());
+
+        assertThatExceptionOfType(KidNotFoundException.class)
+                .isThrownBy(() -> giftQuotaService.reserve(KID_ID, () -> "gift"));
+    }
+
+    private static Optional<KidGiftQuota> quota(int version, int giftCount) {
+        return Optional.of(new KidGiftQuota() {
+            @Override
+            public int getVersion() {
+                return version;
+            }
+
+            @Override
+            public int getGiftCount() {
+                return giftCount;
+            }
+        });
+    }
+}
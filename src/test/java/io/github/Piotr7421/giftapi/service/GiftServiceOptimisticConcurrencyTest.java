@@ -0,0 +1,84 @@
+package io.github.Piotr7421.giftapi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import io.github.Piotr7421.giftapi.exceptions.ToManyGiftsException;
+import io.github.Piotr7421.giftapi.model.Kid;
+import io.github.Piotr7421.giftapi.model.command.CreateGiftCommand;
+import io.github.Piotr7421.giftapi.repository.GiftRepository;
+import io.github.Piotr7421.giftapi.repository.KidRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"gift.concurrency-mode=optimistic", "gift.max-attempts=50"})
+@ActiveProfiles("test")
+class GiftServiceOptimisticConcurrencyTest {
+
+    private static final int CALLERS = 8;
+
+    @Autowired
+    private GiftService giftService;
+    @Autowired
+    private KidRepository kidRepository;
+    @Autowired
+    private GiftRepository giftRepository;
+
+    @AfterEach
+    void tearDown() {
+        giftRepository.deleteAll();
+        kidRepository.deleteAll();
+    }
+
+    @Test
+    void save_WhenCallersRaceForOneKid_ShouldNeverExceedGiftLimit() throws Exception {
+        int kidId = kidRepository.save(Kid.builder()
+                        .firstName("Jan")
+                        .lastName("Kowalski")
+                        .birthDate(LocalDate.of(2012, 4, 21))
+                        .build())
+                .getId();
+        CreateGiftCommand command = new CreateGiftCommand()
+                .setName("Lego")
+                .setPrice(199.99);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    giftService.save(kidId, command);
+                    return true;
+                } catch (ToManyGiftsException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int saved = 0;
+        for (Future<Boolean> result : results) {
+            saved += result.get(30, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        executor.shutdown();
+
+        Kid kid = kidRepository.findById(kidId).orElseThrow();
+        assertThat(saved).isEqualTo(3);
+        assertThat(giftRepository.findAllDtosByKidId(kidId, Pageable.unpaged())).hasSize(3);
+        assertThat(kid.getGiftCount()).isEqualTo(3);
+        assertThat(kid.getVersion()).isEqualTo(3);
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.Piotr7421.giftapi.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,16 +8,16 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.OptimisticLockingFailureException;
-import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import io.github.Piotr7421.giftapi.cache.GiftCache;
 import io.github.Piotr7421.giftapi.exceptions.GiftNotFoundException;
 import io.github.Piotr7421.giftapi.exceptions.GiftOptimisticLockingException;
-import io.github.Piotr7421.giftapi.exceptions.KidLockTimeoutException;
 import io.github.Piotr7421.giftapi.exceptions.KidNotFoundException;
 import io.github.Piotr7421.giftapi.exceptions.ToManyGiftsException;
 import io.github.Piotr7421.giftapi.mapper.GiftMapper;
@@ -25,6 +26,7 @@ import io.github.Piotr7421.giftapi.model.Kid;
 import io.github.Piotr7421.giftapi.model.command.CreateGiftCommand;
 import io.github.Piotr7421.giftapi.model.command.UpdateGiftCommand;
 import io.github.Piotr7421.giftapi.model.dto.GiftDto;
+import io.github.Piotr7421.giftapi.properties.LookupCacheProperties;
 import io.github.Piotr7421.giftapi.repository.GiftRepository;
 import io.github.Piotr7421.giftapi.repository.KidRepository;
 
@@ -32,10 +34,12 @@ import java.text.MessageFormat;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +51,10 @@ class GiftServiceTest {
     private KidRepository kidRepository;
     @Mock
     private GiftMapper giftMapper;
+    @Mock
+    private GiftQuotaService giftQuotaService;
+    @Spy
+    private GiftCache giftCache = new GiftCache(new LookupCacheProperties(), new SimpleMeterRegistry());
 
     @InjectMocks
     private GiftService giftService;
@@ -103,31 +111,29 @@ class GiftServiceTest {
     void findAll_ShouldReturnPageOfGifts() {
         int kidId = kid.getId();
         Pageable pageable = PageRequest.of(0, 5);
-        Page<Gift> pageOfGifts = new PageImpl<>(List.of(gift), pageable, 1);
+        Page<GiftDto> pageOfGifts = new PageImpl<>(List.of(giftDto), pageable, 1);
 
-        when(giftRepository.findAllByKidId(kidId, pageable)).thenReturn(pageOfGifts);
-        when(giftMapper.mapToDto(gift)).thenReturn(giftDto);
+        when(giftRepository.findAllDtosByKidId(kidId, pageable)).thenReturn(pageOfGifts);
 
         Page<GiftDto> result = giftService.findAll(kidId, pageable);
 
-        assertThat(result).isEqualTo(pageOfGifts.map(g -> giftDto));
-        verify(giftRepository).findAllByKidId(kidId, pageable);
-        verify(giftMapper).mapToDto(gift);
+        assertThat(result).isEqualTo(pageOfGifts);
+        verify(giftRepository).findAllDtosByKidId(kidId, pageable);
+        verify(giftMapper, never()).mapToDto(any(Gift.class));
     }
 
     @Test
     void findAll_NoGifts_ShouldReturnEmptyPage() {
         int kidId = kid.getId();
         Pageable pageable = PageRequest.of(0, 5);
-        Page<Gift> emptyPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
+        Page<GiftDto> emptyPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
 
-        when(giftRepository.findAllByKidId(kidId, pageable)).thenReturn(emptyPage);
+        when(giftRepository.findAllDtosByKidId(kidId, pageable)).thenReturn(emptyPage);
 
         Page<GiftDto> result = giftService.findAll(kidId, pageable);
 
         assertThat(result).isEmpty();
-        verify(giftRepository).findAllByKidId(kidId, pageable);
-        verify(giftMapper, never()).mapToDto(any(Gift.class));
+        verify(giftRepository).findAllDtosByKidId(kidId, pageable);
     }
 
     @Test
@@ -166,8 +172,9 @@ class GiftServiceTest {
     void save_HappyPath_ShouldCreateGift() {
         int kidId = kid.getId();
 
-        when(kidRepository.findWithPessimisticLockingById(kidId)).thenReturn(Optional.of(kid));
-        when(giftRepository.countByKidId(kidId)).thenReturn(1L);
+        when(giftQuotaService.reserve(eq(kidId), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(kidRepository.getReferenceById(kidId)).thenReturn(kid);
         when(giftMapper.mapFromCommand(createGiftCommand)).thenReturn(giftToSave);
         when(giftRepository.save(giftToSave)).thenReturn(gift);
         when(giftMapper.mapToDto(gift)).thenReturn(giftDto);
@@ -176,8 +183,7 @@ class GiftServiceTest {
 
         assertThat(result).isEqualTo(giftDto);
 
-        verify(kidRepository).findWithPessimisticLockingById(kidId);
-        verify(giftRepository).countByKidId(kidId);
+        verify(giftQuotaService).reserve(eq(kidId), any());
         verify(giftMapper).mapFromCommand(createGiftCommand);
         verify(giftRepository).save(giftCaptor.capture());
         verify(giftMapper).mapToDto(gift);
@@ -193,45 +199,26 @@ class GiftServiceTest {
         int kidId = kid.getId();
         String expectedMsg = MessageFormat.format("Kid with id={0} not found", kidId);
 
-        when(kidRepository.findWithPessimisticLockingById(kidId)).thenReturn(Optional.empty());
+        when(giftQuotaService.reserve(eq(kidId), any())).thenThrow(new KidNotFoundException(expectedMsg));
 
         assertThatExceptionOfType(KidNotFoundException.class)
                 .isThrownBy(() -> giftService.save(kidId, createGiftCommand))
                 .withMessage(expectedMsg);
 
-        verify(kidRepository).findWithPessimisticLockingById(kidId);
-        verify(giftRepository, never()).save(any(Gift.class));
-    }
-
-    @Test
-    void save_WhenPessimisticLockingFailure_ShouldThrowKidLockTimeoutException() {
-        int kidId = kid.getId();
-
-        when(kidRepository.findWithPessimisticLockingById(kidId))
-                .thenThrow(new PessimisticLockingFailureException("lock timeout"));
-
-        assertThatExceptionOfType(KidLockTimeoutException.class)
-                .isThrownBy(() -> giftService.save(kidId, createGiftCommand))
-                .withMessage("Could not acquire lock on kid - operation timed out");
-
-        verify(kidRepository).findWithPessimisticLockingById(kidId);
         verify(giftRepository, never()).save(any(Gift.class));
     }
 
     @Test
     void save_WhenTooManyGifts_ShouldThrowToManyGiftsException() {
         int kidId = kid.getId();
-        when(kidRepository.findWithPessimisticLockingById(kidId)).thenReturn(Optional.of(kid));
-        when(giftRepository.countByKidId(kidId)).thenReturn(3L);
-
         String expectedMsg = MessageFormat.format("To many gifts for kid with id={0}", kidId);
 
+        when(giftQuotaService.reserve(eq(kidId), any())).thenThrow(new ToManyGiftsException(expectedMsg));
+
         assertThatExceptionOfType(ToManyGiftsException.class)
                 .isThrownBy(() -> giftService.save(kidId, createGiftCommand))
                 .withMessage(expectedMsg);
 
-        verify(kidRepository).findWithPessimisticLockingById(kidId);
-        verify(giftRepository).countByKidId(kidId);
         verify(giftRepository, never()).save(any(Gift.class));
     }
 
@@ -303,10 +290,23 @@ class GiftServiceTest {
         int kidId = kid.getId();
         int giftId = gift.getId();
 
-        doNothing().when(giftRepository).deleteByIdAndKidId(giftId, kidId);
+        when(giftRepository.deleteByIdAndKidId(giftId, kidId)).thenReturn(1L);
 
         giftService.delete(kidId, giftId);
 
         verify(giftRepository).deleteByIdAndKidId(giftId, kidId);
+        verify(giftQuotaService).release(kidId);
+    }
+
+    @Test
+    void delete_WhenGiftNotFound_ShouldNotChangeGiftCount() {
+        int kidId = kid.getId();
+        int giftId = gift.getId();
+
+        when(giftRepository.deleteByIdAndKidId(giftId, kidId)).thenReturn(0L);
+
+        giftService.delete(kidId, giftId);
+
+        verify(giftQuotaService, never()).release(kidId);
     }
 }
\ No newline at end of file
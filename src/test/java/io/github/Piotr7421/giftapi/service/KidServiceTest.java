@@ -1,5 +1,6 @@
 package io.github.Piotr7421.giftapi.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,26 +8,31 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import io.github.Piotr7421.giftapi.cache.GiftCache;
+import io.github.Piotr7421.giftapi.cache.KidCache;
 import io.github.Piotr7421.giftapi.exceptions.KidNotFoundException;
 import io.github.Piotr7421.giftapi.mapper.KidMapper;
 import io.github.Piotr7421.giftapi.model.Kid;
 import io.github.Piotr7421.giftapi.model.command.CreateKidCommand;
 import io.github.Piotr7421.giftapi.model.command.UpdateKidCommand;
 import io.github.Piotr7421.giftapi.model.dto.KidDto;
-import io.github.Piotr7421.giftapi.repository.GiftRepository;
+import io.github.Piotr7421.giftapi.properties.LookupCacheProperties;
 import io.github.Piotr7421.giftapi.repository.KidRepository;
 
 import java.text.MessageFormat;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -34,6 +40,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -46,8 +53,12 @@ class KidServiceTest {
     @Mock
     private KidMapper kidMapper;
 
-    @Mock
-    private GiftRepository giftRepository;
+
+    @Spy
+    private KidCache kidCache = new KidCache(new LookupCacheProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private GiftCache giftCache = new GiftCache(new LookupCacheProperties(), new SimpleMeterRegistry());
 
     @InjectMocks
     private KidService kidService;
@@ -91,31 +102,28 @@ class KidServiceTest {
     @Test
     void findAll_ShouldReturnPageOfKidDto() {
         Pageable pageable = PageRequest.of(0, 10);
-        List<Kid> kids = List.of(kid);
-        Page<Kid> kidPage = new PageImpl<>(kids, pageable, kids.size());
+        Page<KidDto> kidPage = new PageImpl<>(List.of(kidDto), pageable, 1);
 
-        when(kidRepository.findAll(pageable)).thenReturn(kidPage);
-        when(kidMapper.mapToDto(kid)).thenReturn(kidDto);
+        when(kidRepository.findAllDtos(pageable)).thenReturn(kidPage);
 
         Page<KidDto> result = kidService.findAll(pageable);
 
-        assertThat(result).isEqualTo(kidPage.map(k -> kidDto));
-        verify(kidRepository).findAll(pageable);
-        verify(kidMapper).mapToDto(kid);
+        assertThat(result).isEqualTo(kidPage);
+        verify(kidRepository).findAllDtos(pageable);
+        verify(kidMapper, never()).mapToDto(any(Kid.class));
     }
 
     @Test
     void findAll_NoKids_ShouldReturnEmptyPage() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Kid> emptyPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
+        Page<KidDto> emptyPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
 
-        when(kidRepository.findAll(pageable)).thenReturn(emptyPage);
+        when(kidRepository.findAllDtos(pageable)).thenReturn(emptyPage);
 
         Page<KidDto> result = kidService.findAll(pageable);
 
         assertThat(result).isEmpty();
-        verify(kidRepository).findAll(pageable);
-        verify(kidMapper, never()).mapToDto(any(Kid.class));
+        verify(kidRepository).findAllDtos(pageable);
     }
 
     @Test
@@ -131,6 +139,34 @@ class KidServiceTest {
         verify(kidMapper).mapToDto(kid);
     }
 
+    @Test
+    void findById_WhenCalledTwice_ShouldLoadKidOnce() {
+        int kidId = kid.getId();
+        when(kidRepository.findById(kidId)).thenReturn(Optional.of(kid));
+        when(kidMapper.mapToDto(kid)).thenReturn(kidDto);
+
+        kidService.findById(kidId);
+        KidDto result = kidService.findById(kidId);
+
+        assertThat(result).isEqualTo(kidDto);
+        verify(kidRepository, times(1)).findById(kidId);
+    }
+
+    @Test
+    void findById_AfterDelete_ShouldLoadKidAgain() {
+        int kidId = kid.getId();
+        when(kidRepository.findById(kidId)).thenReturn(Optional.of(kid), Optional.empty());
+        when(kidMapper.mapToDto(kid)).thenReturn(kidDto);
+        kidService.findById(kidId);
+
+        kidService.delete(kidId);
+
+        assertThatExceptionOfType(KidNotFoundException.class)
+                .isThrownBy(() -> kidService.findById(kidId));
+        verify(kidCache).evictAllAfterCommit(List.of(kidId));
+        verify(giftCache).evictAllOfKidsAfterCommit(List.of(kidId));
+    }
+
     @Test
     void findById_WhenKidNotFound_ShouldThrowException() {
         int kidId = kid.getId();
@@ -254,12 +290,23 @@ class KidServiceTest {
     @Test
     void delete_ShouldDeleteKid() {
         int kidId = kid.getId();
-        doNothing().when(giftRepository).deleteAllByKidId(kidId);
-        doNothing().when(kidRepository).deleteById(kidId);
+        when(kidRepository.deleteAllByIdIn(List.of(kidId))).thenReturn(1);
 
         kidService.delete(kidId);
 
-        verify(giftRepository).deleteAllByKidId(kidId);
-        verify(kidRepository).deleteById(kidId);
+        verify(kidRepository).deleteAllByIdIn(List.of(kidId));
+        verify(kidRepository, never()).deleteById(kidId);
+    }
+
+    @Test
+    void deleteAll_ShouldDeleteDistinctKidsInChunksOfThousand() {
+        List<Integer> ids = new ArrayList<>(IntStream.rangeClosed(1, 1500).boxed().toList());
+        ids.add(1);
+
+        kidService.deleteAll(ids);
+
+        verify(kidRepository).deleteAllByIdIn(IntStream.rangeClosed(1, 1000).boxed().toList());
+        verify(kidRepository).deleteAllByIdIn(IntStream.rangeClosed(1001, 1500).boxed().toList());
+        verify(giftCache).evictAllOfKidsAfterCommit(IntStream.rangeClosed(1, 1500).boxed().toList());
     }
 }
@@ -0,0 +1,53 @@
+package io.github.Piotr7421.giftapi.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockMultipartFile;
+import io.github.Piotr7421.giftapi.exceptions.ImportQueueFullException;
+import io.github.Piotr7421.giftapi.importer.model.ImportJob;
+import io.github.Piotr7421.giftapi.repository.ImportRejectRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class KidsFilePreparationServiceTest {
+
+    @Mock
+    private KidsFileAsyncService kidsFileAsyncService;
+
+    @Mock
+    private ImportRejectRepository importRejectRepository;
+
+    @Test
+    void processKidsFile_WhenImportQueueIsFull_ShouldFailJobAndDeleteTemporaryFile() {
+        ImportJobService importJobService = new ImportJobService(importRejectRepository);
+        KidsFilePreparationService kidsFilePreparationService = new KidsFilePreparationService(kidsFileAsyncService, importJobService);
+        AtomicReference<Path> tmpFile = new AtomicReference<>();
+        AtomicReference<ImportJob> job = new AtomicReference<>();
+        doAnswer(invocation -> {
+            tmpFile.set(invocation.getArgument(0));
+            job.set(invocation.getArgument(1));
+            throw new TaskRejectedException("queue full");
+        }).when(kidsFileAsyncService).asyncProcessKidsFile(any(), any());
+        MockMultipartFile file = new MockMultipartFile("file", "kids.csv", "text/csv",
+                "firstName,lastName,birthDate\nJan,Kowalski,2012-04-21\n".getBytes());
+
+        assertThatThrownBy(() -> kidsFilePreparationService.processKidsFile(file))
+                .isInstanceOf(ImportQueueFullException.class)
+                .hasMessage("Import queue is full, could not import file: kids.csv");
+
+        assertThat(Files.exists(tmpFile.get())).isFalse();
+        assertThat(job.get().isFinished()).isTrue();
+        assertThat(importJobService.findById(job.get().getId()).getStatus()).isEqualTo("FAILED");
+    }
+}
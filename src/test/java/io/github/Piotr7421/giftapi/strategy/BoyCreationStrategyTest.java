@@ -12,6 +12,7 @@ import java.time.LocalDate;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @ExtendWith(MockitoExtension.class)
 class BoyCreationStrategyTest {
@@ -40,4 +41,18 @@ class BoyCreationStrategyTest {
         assertThat(boy.getBirthDate()).isEqualTo(LocalDate.parse("2014-05-01"));
         assertThat(boy.getPantsLength()).isEqualTo(23);
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseSubtypeValue_ShouldAcceptOnlyPositivePantsLengths() {
+        assertThat(boyStrategy.parseSubtypeValue("23")).isEqualTo(23);
+        assertThatThrownBy(() -> boyStrategy.parseSubtypeValue("0"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("pants length is not a positive number");
+        assertThatThrownBy(() -> boyStrategy.parseSubtypeValue("tall"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("pants length is not a number");
+        assertThatThrownBy(() -> boyStrategy.parseSubtypeValue(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("pants length is empty");
+    }
+}
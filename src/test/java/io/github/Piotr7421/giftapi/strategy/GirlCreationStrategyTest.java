@@ -12,6 +12,7 @@ import java.time.LocalDate;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @ExtendWith(MockitoExtension.class)
 class GirlCreationStrategyTest {
@@ -41,4 +42,13 @@ class GirlCreationStrategyTest {
         assertThat(girl.getBirthDate()).isEqualTo(LocalDate.parse("2015-08-12"));
         assertThat(girl.getSkirtColor()).isEqualTo("pink");
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseSubtypeValue_ShouldTreatEmptySkirtColorAsMissingAndRejectTooLongOnes() {
+        assertThat(girlStrategy.parseSubtypeValue("")).isNull();
+        assertThat(girlStrategy.parseSubtypeValue("red")).isEqualTo("red");
+        assertThatThrownBy(() -> girlStrategy.parseSubtypeValue("x".repeat(21)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("skirt color is longer than 20 characters");
+    }
+}
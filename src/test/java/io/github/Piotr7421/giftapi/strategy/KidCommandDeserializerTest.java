@@ -0,0 +1,102 @@
+package io.github.Piotr7421.giftapi.strategy;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+import io.github.Piotr7421.giftapi.exceptions.UnknownKidTypeException;
+import io.github.Piotr7421.giftapi.strategy.model.Boy;
+import io.github.Piotr7421.giftapi.strategy.model.Girl;
+import io.github.Piotr7421.giftapi.strategy.model.command.ParsedKidCommand;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KidCommandDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new SimpleModule()
+            .addDeserializer(ParsedKidCommand.class, new KidCommandDeserializer(new KidStrategyRegistry(Map.of(
+                    "BOY", new BoyCreationStrategy(),
+                    "GIRL", new GirlCreationStrategy())))));
+
+    @Test
+    void deserialize_ShouldBindParamsStraightIntoTheKidAndSkipUnknownOnes() throws IOException {
+        ParsedKidCommand parsedCommand = read("""
+                {"type":"BOY","params":{"firstName":"Tim","nickname":{"short":"T"},"lastName":"Lee",
+                "birthDate":"2014-05-01","pantsLength":23,"skirtColor":"red"},"comment":[1,2]}
+                """);
+
+        assertThat(parsedCommand.type()).isEqualTo("BOY");
+        assertThat(parsedCommand.error()).isNull();
+        assertThat(parsedCommand.kid()).isInstanceOfSatisfying(Boy.class, boy -> {
+            assertThat(boy.getFirstName()).isEqualTo("Tim");
+            assertThat(boy.getLastName()).isEqualTo("Lee");
+            assertThat(boy.getBirthDate()).isEqualTo(LocalDate.of(2014, 5, 1));
+            assertThat(boy.getPantsLength()).isEqualTo(23);
+        });
+    }
+
+    @Test
+    void deserialize_WhenParamsComeBeforeType_ShouldBufferThem() throws IOException {
+        ParsedKidCommand parsedCommand = read("""
+                {"params":{"firstName":"Ola","lastName":"Lee","birthDate":"2015-06-01"},"type":"GIRL"}
+                """);
+
+        assertThat(parsedCommand.kid()).isInstanceOfSatisfying(Girl.class, girl -> {
+            assertThat(girl.getFirstName()).isEqualTo("Ola");
+            assertThat(girl.getSkirtColor()).isNull();
+        });
+    }
+
+    @Test
+    void deserialize_WhenRequiredParamIsMissing_ShouldKeepTheError() throws IOException {
+        ParsedKidCommand parsedCommand = read("""
+                {"type":"GIRL","params":{"firstName":"Ola","birthDate":"2015-06-01"}}
+                """);
+
+        assertThat(parsedCommand.kid()).isNull();
+        assertThat(parsedCommand.error())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("lastName is missing");
+    }
+
+    @Test
+    void deserialize_WithInvalidItemsInArray_ShouldKeepReadingTheItemsAfterThem() throws IOException {
+        List<ParsedKidCommand> parsedCommands = objectMapper.readValue("""
+                [{"type":"DOG","params":{"name":"Rex","toys":["ball"]}},
+                 {"type":"BOY","params":{"birthDate":"2014-13-01","firstName":"Tim","lastName":"Lee","pantsLength":23}},
+                 {"type":"GIRL","params":{"firstName":"Ola","lastName":"Lee","birthDate":"2015-06-01"}}]
+                """, new TypeReference<>() {
+        });
+
+        assertThat(parsedCommands).hasSize(3);
+        assertThat(parsedCommands.get(0).error()).isInstanceOf(UnknownKidTypeException.class);
+        assertThat(parsedCommands.get(1).error()).isNotNull();
+        assertThat(parsedCommands.get(2).kid()).isInstanceOf(Girl.class);
+    }
+
+    @Test
+    void deserialize_WhenTypeIsAnObject_ShouldRejectItAndKeepReadingTheItemsAfterIt() throws IOException {
+        List<ParsedKidCommand> parsedCommands = objectMapper.readValue("""
+                [{"type":{"x":1},"params":{"firstName":"Tim","lastName":"Lee","birthDate":"2014-05-01","pantsLength":23}},
+                 {"type":"GIRL","params":{"firstName":"Ola","lastName":"Lee","birthDate":"2015-06-01"}}]
+                """, new TypeReference<>() {
+        });
+
+        assertThat(parsedCommands).hasSize(2);
+        assertThat(parsedCommands.get(0).kid()).isNull();
+        assertThat(parsedCommands.get(0).error())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("type is not a string");
+        assertThat(parsedCommands.get(1).type()).isEqualTo("GIRL");
+        assertThat(parsedCommands.get(1).kid()).isInstanceOf(Girl.class);
+    }
+
+    private ParsedKidCommand read(String json) throws IOException {
+        return objectMapper.readValue(json, ParsedKidCommand.class);
+    }
+}
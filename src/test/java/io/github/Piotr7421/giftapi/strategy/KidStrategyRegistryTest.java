@@ -0,0 +1,25 @@
+package io.github.Piotr7421.giftapi.strategy;
+
+import org.junit.jupiter.api.Test;
+import io.github.Piotr7421.giftapi.exceptions.UnknownKidTypeException;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KidStrategyRegistryTest {
+
+    private final KidStrategyRegistry registry = new KidStrategyRegistry(Map.of(
+            "BOY", new BoyCreationStrategy(),
+            "GIRL", new GirlCreationStrategy()));
+
+    @Test
+    void get_WithUnknownType_ShouldThrowException() {
+        assertThatThrownBy(() -> registry.get("DOG"))
+                .isInstanceOf(UnknownKidTypeException.class)
+                .hasMessage("Unknown kid type: DOG");
+        assertThatThrownBy(() -> registry.get(null))
+                .isInstanceOf(UnknownKidTypeException.class);
+    }
+
+}
@@ -1,6 +1,7 @@
 package io.github.Piotr7421.giftapi.strategy.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,12 +10,20 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import io.github.Piotr7421.giftapi.model.Kid;
 import io.github.Piotr7421.giftapi.repository.KidRepository;
+import io.github.Piotr7421.giftapi.strategy.model.Boy;
+import io.github.Piotr7421.giftapi.strategy.model.Girl;
 
+import java.util.List;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.contains;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -53,4 +62,92 @@ class KidStrategyControllerTest {
                 .andDo(print())
                 .andExpect(status().isCreated());
     }
-}
\ No newline at end of file
+
+    @Test
+    void createKidViaStrategy_WithParamsBeforeType_ShouldPersistKidOfThatType() throws Exception {
+        mockMvc.perform(post("/api/strategy/kids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"params":{"firstName":"Ola","lastName":"Lee","birthDate":"2015-06-01","skirtColor":"red"},"type":"GIRL"}
+                                """))
+                .andExpect(status().isCreated());
+
+        assertThat(kidRepository.findAll()).singleElement()
+                .isInstanceOfSatisfying(Girl.class, girl -> assertThat(girl.getSkirtColor()).isEqualTo("red"));
+    }
+
+    @Test
+    void createKidViaStrategy_WithUnknownType_ShouldReturn400() throws Exception {
+        mockMvc.perform(post("/api/strategy/kids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"DOG\",\"params\":{\"firstName\":\"Rex\"}}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown kid type: DOG"));
+    }
+
+    @Test
+    void createKidViaStrategy_WithInvalidParams_ShouldReturn400() throws Exception {
+        mockMvc.perform(post("/api/strategy/kids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"BOY\",\"params\":{\"firstName\":\"Tim\",\"lastName\":\"Lee\",\"birthDate\":\"2014-05-01\"}}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("pants length is empty"));
+        assertThat(kidRepository.count()).isZero();
+    }
+
+    @Test
+    void createAll_ShouldCreateValidKidsAndReportEveryItem() throws Exception {
+        String body = objectMapper.writeValueAsString(List.of(
+                Map.of("type", "BOY", "params", Map.of(
+                        "firstName", "Tim", "lastName", "Lee", "birthDate", "2014-05-01", "pantsLength", "23")),
+                Map.of("type", "GIRL", "params", Map.of(
+                        "firstName", "Ola", "lastName", "Lee", "birthDate", "2015-06-01", "skirtColor", "red")),
+                Map.of("type", "BOY", "params", Map.of(
+                        "firstName", "Tom", "lastName", "Lee", "birthDate", "2014-13-01", "pantsLength", "23"))));
+
+        mockMvc.perform(post("/api/strategy/kids/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].id").isNumber())
+                .andExpect(jsonPath("$[1].status").value(201))
+                .andExpect(jsonPath("$[2].status").value(400))
+                .andExpect(jsonPath("$[2].id").doesNotExist());
+
+        assertThat(kidRepository.findAll())
+                .extracting(Kid::getFirstName, Kid::getClass)
+                .containsExactlyInAnyOrder(tuple("Tim", Boy.class), tuple("Ola", Girl.class));
+    }
+
+    @Test
+    void createAll_FromNdjson_ShouldCreateKids() throws Exception {
+        String body = """
+                {"type":"GIRL","params":{"firstName":"Ola","lastName":"Lee","birthDate":"2015-06-01"}}
+                {"type":"BOY","params":{"firstName":"Tim","lastName":"Lee","birthDate":"2014-05-01","pantsLength":"23"}}
+                """;
+
+        String response = mockMvc.perform(post("/api/strategy/kids/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].status", contains(201, 201)))
+                .andReturn().getResponse().getContentAsString();
+
+        int boyId = JsonPath.read(response, "$[1].id");
+        assertThat(kidRepository.findById(boyId)).get()
+                .isInstanceOfSatisfying(Boy.class, boy -> assertThat(boy.getPantsLength()).isEqualTo(23));
+    }
+
+    @Test
+    void createAll_FromMalformedNdjson_ShouldReturn400() throws Exception {
+        mockMvc.perform(post("/api/strategy/kids/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"type\":\"BOY\"}\n{not json\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Line 2 is not a valid kid command"));
+        assertThat(kidRepository.count()).isZero();
+    }
+}
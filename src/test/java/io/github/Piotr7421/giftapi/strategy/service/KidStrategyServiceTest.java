@@ -1,50 +1,155 @@
 package io.github.Piotr7421.giftapi.strategy.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import io.github.Piotr7421.giftapi.exceptions.InvalidKidBatchException;
+import io.github.Piotr7421.giftapi.exceptions.InvalidKidCommandException;
+import io.github.Piotr7421.giftapi.exceptions.UnknownKidTypeException;
 import io.github.Piotr7421.giftapi.model.Kid;
 import io.github.Piotr7421.giftapi.repository.KidRepository;
-import io.github.Piotr7421.giftapi.strategy.KidCreationStrategy;
-import io.github.Piotr7421.giftapi.strategy.model.command.CreateKidStrategyCommand;
+import io.github.Piotr7421.giftapi.strategy.BoyCreationStrategy;
+import io.github.Piotr7421.giftapi.strategy.GirlCreationStrategy;
+import io.github.Piotr7421.giftapi.strategy.KidCommandDeserializer;
+import io.github.Piotr7421.giftapi.strategy.KidStrategyRegistry;
+import io.github.Piotr7421.giftapi.strategy.model.Boy;
+import io.github.Piotr7421.giftapi.strategy.model.command.ParsedKidCommand;
+import io.github.Piotr7421.giftapi.strategy.model.dto.KidStrategyResultDto;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class KidStrategyServiceTest {
 
-    @Mock
-    private KidRepository kidRepository;
+    private static final KidStrategyRegistry KID_STRATEGY_REGISTRY = new KidStrategyRegistry(Map.of(
+            "BOY", new BoyCreationStrategy(), "GIRL", new GirlCreationStrategy()));
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new SimpleModule()
+            .addDeserializer(ParsedKidCommand.class, new KidCommandDeserializer(KID_STRATEGY_REGISTRY)));
 
     @Mock
-    private KidCreationStrategy boyStrategy;
+    private KidRepository kidRepository;
 
-    @InjectMocks
     private KidStrategyService kidStrategyService;
 
     @BeforeEach
     void init() {
-        Map<String, KidCreationStrategy> map = Map.of("BOY", boyStrategy);
-        kidStrategyService = new KidStrategyService(map, kidRepository);
+        kidStrategyService = new KidStrategyService(kidRepository, OBJECT_MAPPER);
     }
 
     @Test
     void create_WithExistingStrategy_ShouldSaveKid() {
-        CreateKidStrategyCommand cmd = new CreateKidStrategyCommand();
-        cmd.setType("BOY");
+        kidStrategyService.create(json("""
+                {"type":"BOY","params":{"firstName":"Tim","lastName":"Lee","birthDate":"2014-05-01","pantsLength":23}}
+                """));
+
+        ArgumentCaptor<Kid> saved = ArgumentCaptor.captor();
+        verify(kidRepository).save(saved.capture());
+        assertThat(saved.getValue()).isInstanceOfSatisfying(Boy.class, boy -> {
+            assertThat(boy.getFirstName()).isEqualTo("Tim");
+            assertThat(boy.getPantsLength()).isEqualTo(23);
+        });
+    }
+
+    @Test
+    void create_WithUnknownType_ShouldThrowException() {
+        InputStream json = json("""
+                {"type":"DOG","params":{"firstName":"Rex"}}
+                """);
+
+        assertThatThrownBy(() -> kidStrategyService.create(json))
+                .isInstanceOf(UnknownKidTypeException.class)
+                .hasMessage("Unknown kid type: DOG");
+        verifyNoInteractions(kidRepository);
+    }
+
+    @Test
+    void create_FromNullBody_ShouldThrowException() {
+        InputStream json = json("null");
+
+        assertThatThrownBy(() -> kidStrategyService.create(json))
+                .isInstanceOf(InvalidKidCommandException.class)
+                .hasMessage("Request body is not a valid kid command");
+        verifyNoInteractions(kidRepository);
+    }
 
-        Kid kid = Kid.builder().firstName("Tim").build();
-        when(boyStrategy.create(cmd)).thenReturn(kid);
+    @Test
+    void createAll_ShouldSaveValidKidsGroupedByTypeAndAnswerEveryItem() {
+        List<ParsedKidCommand> commands = List.of(
+                command("BOY", "Tim", "23"),
+                command("GIRL", "Ola", "red"),
+                command("DOG", "Rex", "1"),
+                command("BOY", "Tom", "0"),
+                command("BOY", "Jan", "30"));
+
+        List<KidStrategyResultDto> results = kidStrategyService.createAll(commands);
+
+        ArgumentCaptor<List<Kid>> saved = ArgumentCaptor.captor();
+        verify(kidRepository, times(2)).saveAllAndFlush(saved.capture());
+        assertThat(saved.getAllValues().get(0)).extracting(Kid::getFirstName).containsExactly("Tim", "Jan");
+        assertThat(saved.getAllValues().get(1)).extracting(Kid::getFirstName).containsExactly("Ola");
+        assertThat(results)
+                .extracting(KidStrategyResultDto::getType, KidStrategyResultDto::getStatus, KidStrategyResultDto::getMessage)
+                .containsExactly(
+                        tuple("BOY", 201, null),
+                        tuple("GIRL", 201, null),
+                        tuple("DOG", 400, "Unknown kid type: DOG"),
+                        tuple("BOY", 400, "pants length is not a positive number"),
+                        tuple("BOY", 201, null));
+    }
 
-        kidStrategyService.create(cmd);
+    @Test
+    void createAll_WhenBatchIsTooLarge_ShouldThrowException() {
+        List<ParsedKidCommand> commands = Collections.nCopies(KidStrategyService.MAX_BATCH_SIZE + 1, command("BOY", "Tim", "23"));
+
+        assertThatThrownBy(() -> kidStrategyService.createAll(commands))
+                .isInstanceOf(InvalidKidBatchException.class)
+                .hasMessage("At most 1,000 kids can be created in one batch");
+        verifyNoInteractions(kidRepository);
+    }
+
+    @Test
+    void create_FromJsonWithInvalidParams_ShouldThrowException() {
+        InputStream json = json("""
+                {"type":"BOY","params":{"firstName":"Tim","lastName":"Lee","birthDate":"2014-05-01","pantsLength":-1}}
+                """);
+
+        assertThatThrownBy(() -> kidStrategyService.create(json))
+                .isInstanceOf(InvalidKidCommandException.class)
+                .hasMessage("pants length is not a positive number");
+        verifyNoInteractions(kidRepository);
+    }
+
+    private static InputStream json(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
 
-        verify(boyStrategy).create(cmd);
-        verify(kidRepository).save(kid);
+    private static ParsedKidCommand command(String type, String firstName, String subtypeValue) {
+        try {
+            return OBJECT_MAPPER.readValue(MessageFormat.format("""
+                    '{'"type":"{0}","params":'{'"firstName":"{1}","lastName":"Lee","birthDate":"2014-05-01",
+                    "pantsLength":"{2}","skirtColor":"{2}"}}
+                    """, type, firstName, subtypeValue), ParsedKidCommand.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
     }
-}
\ No newline at end of file
+}